@@ -0,0 +1,73 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vibur.objectpool.util.ConcurrentCollection;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the raw {@link ConcurrentCollection#offerFirst} and {@link ConcurrentCollection#pollFirst}
+ * throughput of the available {@code ConcurrentCollection} implementations, without the pool permits.
+ * Use the JMH {@code -t} option to measure how the throughput of each collection scales with the number of threads.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentCollectionBenchmark {
+
+    private static final int CAPACITY = 1024;
+
+    @Param({"deque", "queue", "stack", "mcqueue", "striped", "threadlocal"})
+    public String collection;
+
+    private ConcurrentCollection<Object> available;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        available = ConcurrentPoolBenchmark.newCollection(collection, CAPACITY);
+        for (int i = 0; i < CAPACITY / 2; i++) {
+            available.offerLast(new Object());
+        }
+    }
+
+    @Benchmark
+    public Object pollFirstOfferFirst() {
+        Object object = available.pollFirst();
+        if (object != null) {
+            available.offerFirst(object);
+        }
+        return object;
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.Lease;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+import org.vibur.objectpool.util.ConcurrentCollection;
+import org.vibur.objectpool.util.ConcurrentLinkedDequeCollection;
+import org.vibur.objectpool.util.ConcurrentLinkedQueueCollection;
+import org.vibur.objectpool.util.ConcurrentStackCollection;
+import org.vibur.objectpool.util.IndexedTakenListener;
+import org.vibur.objectpool.util.Listener;
+import org.vibur.objectpool.util.MultithreadConcurrentQueueCollection;
+import org.vibur.objectpool.util.SamplingLeakDetector;
+import org.vibur.objectpool.util.StripedConcurrentCollection;
+import org.vibur.objectpool.util.TakenListener;
+import org.vibur.objectpool.util.ThreadLocalCacheCollection;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the {@link ConcurrentPool} {@code take}, {@code tryTake} and {@code restore} operations
+ * for each of the available {@link ConcurrentCollection} implementations.
+ *
+ * <p>The benchmark parameters vary the collection type, the pool fairness, the pool state and whether a
+ * {@link TakenListener}, an {@link IndexedTakenListener} or a {@link SamplingLeakDetector} is installed.
+ * In the {@code idle} state the pool capacity is greater than the number of benchmark threads and the takers
+ * never wait, while in the {@code exhausted} state the pool capacity is one less than the number of benchmark
+ * threads, which must be at least two, and the takers contend for the pool permits. The number of threads
+ * is controlled via the JMH {@code -t} option, which is 4 in the default {@code jmh.args} of the {@code jmh}
+ * Maven profile; {@link #main} runs the benchmarks for a range of thread counts
+ * and reports the throughput, the average time, the sample time percentiles and the GC allocation rates.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentPoolBenchmark {
+
+    private static final int IDLE_POOL_SIZE = 1024;
+    private static final long TRY_TAKE_TIMEOUT_MS = 100;
+
+    @Param({"deque", "queue", "stack", "mcqueue", "striped", "threadlocal"})
+    public String collection;
+
+    @Param({"false", "true"})
+    public boolean fair;
+
+    @Param({"idle", "exhausted"})
+    public String poolState;
+
+    @Param({"none", "taken", "indexed", "leak"})
+    public String listener;
+
+    /** The amount of CPU work, in JMH {@link Blackhole#consumeCPU} tokens, done while holding the object. */
+    @Param({"0"})
+    public long holdTokens;
+
+    private PoolService<Object> pool;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        if (!"idle".equals(poolState) && params.getThreads() < 2) {
+            throw new IllegalArgumentException("the exhausted pool state requires at least 2 threads");
+        }
+        int maxSize = "idle".equals(poolState) ? IDLE_POOL_SIZE : params.getThreads() - 1;
+        pool = new ConcurrentPool<>(newCollection(collection, maxSize), new SimpleObjectFactory(),
+                maxSize, maxSize, fair, newListener(listener, maxSize));
+    }
+
+    private static Listener<Object> newListener(String type, int maxSize) {
+        switch (type) {
+            case "none":
+                return null;
+            case "taken":
+                return new TakenListener<>(maxSize);
+            case "indexed":
+                return new IndexedTakenListener<>(maxSize);
+            case "leak":
+                return new SamplingLeakDetector<>(maxSize, 128, true, 1, TimeUnit.MINUTES);
+            default:
+                throw new IllegalArgumentException(type);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.terminate();
+    }
+
+    static ConcurrentCollection<Object> newCollection(String type, int capacity) {
+        switch (type) {
+            case "deque":
+                return new ConcurrentLinkedDequeCollection<>();
+            case "queue":
+                return new ConcurrentLinkedQueueCollection<>();
+            case "stack":
+                return new ConcurrentStackCollection<>(capacity);
+            case "mcqueue":
+                return new MultithreadConcurrentQueueCollection<>(capacity);
+            case "striped":
+                return new StripedConcurrentCollection<>();
+            case "threadlocal":
+                return new ThreadLocalCacheCollection<>(new ConcurrentLinkedDequeCollection<>());
+            default:
+                throw new IllegalArgumentException(type);
+        }
+    }
+
+    @Benchmark
+    public Object takeRestore() {
+        Object object = pool.take();
+        Blackhole.consumeCPU(holdTokens);
+        pool.restore(object);
+        return object;
+    }
+
+    @Benchmark
+    public Object takeLeaseClose() {
+        try (Lease<Object> lease = pool.takeLease()) {
+            Blackhole.consumeCPU(holdTokens);
+            return lease.get();
+        }
+    }
+
+    @Benchmark
+    public Object tryTakeTimeoutRestore() {
+        Object object = pool.tryTake(TRY_TAKE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (object != null) {
+            Blackhole.consumeCPU(holdTokens);
+            pool.restore(object);
+        }
+        return object;
+    }
+
+    @Benchmark
+    public Object tryTakeRestore() {
+        Object object = pool.tryTake();
+        if (object != null) {
+            Blackhole.consumeCPU(holdTokens);
+            pool.restore(object);
+        }
+        return object;
+    }
+
+    /**
+     * Runs all {@code ConcurrentPoolBenchmark} benchmarks with 1, 4, 16 and 64 threads and with the
+     * JMH GC profiler enabled; with 1 thread, only the {@code idle} pool state is run, as a single thread
+     * cannot exhaust the pool. Any given program arguments are used as thread counts instead of the defaults.
+     */
+    public static void main(String[] args) throws RunnerException {
+        int[] threadCounts = {1, 4, 16, 64};
+        if (args.length > 0) {
+            threadCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threadCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        for (int threads : threadCounts) {
+            ChainedOptionsBuilder builder = new OptionsBuilder()
+                    .include(ConcurrentPoolBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class);
+            if (threads < 2) {
+                builder.param("poolState", "idle");
+            }
+            new Runner(builder.build()).run();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolObjectFactory;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+import org.vibur.objectpool.util.ConcurrentLinkedDequeCollection;
+import org.vibur.objectpool.util.Listener;
+import org.vibur.objectpool.util.PoolMetrics;
+import org.vibur.objectpool.util.SemaphorePermits;
+import org.vibur.objectpool.util.TakePermits;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the {@link ConcurrentPool} take/restore operations with and without {@link PoolMetrics}.
+ * Run with {@code -prof gc} to verify that the metrics recording does not allocate, and with different {@code -t}
+ * values to measure the overhead under contention.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolMetricsBenchmark {
+
+    private static final int POOL_SIZE = 1024;
+
+    @Param({"off", "on"})
+    public String metrics;
+
+    private PoolService<Object> pool;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        PoolObjectFactory<Object> factory = new SimpleObjectFactory();
+        TakePermits permits = new SemaphorePermits(POOL_SIZE, false);
+        Listener<Object> listener = null;
+        if ("on".equals(metrics)) {
+            PoolMetrics<Object> poolMetrics = new PoolMetrics<>(POOL_SIZE);
+            factory = poolMetrics.factory(factory);
+            permits = poolMetrics.permits(permits);
+            listener = poolMetrics.listener(null);
+        }
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), factory,
+                POOL_SIZE, POOL_SIZE, permits, listener, 0, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.terminate();
+    }
+
+    @Benchmark
+    public Object takeRestore() {
+        Object object = pool.take();
+        pool.restore(object);
+        return object;
+    }
+
+    @Benchmark
+    public Object tryTakeTimeoutRestore() {
+        Object object = pool.tryTake(1, TimeUnit.SECONDS);
+        pool.restore(object);
+        return object;
+    }
+}
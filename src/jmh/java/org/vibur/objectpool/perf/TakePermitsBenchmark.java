@@ -0,0 +1,97 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+import org.vibur.objectpool.util.ConcurrentLinkedDequeCollection;
+import org.vibur.objectpool.util.SemaphorePermits;
+import org.vibur.objectpool.util.SpinParkPermits;
+import org.vibur.objectpool.util.TakePermits;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks comparing the {@link SemaphorePermits} and {@link SpinParkPermits} implementations of
+ * {@link TakePermits} under 1x, 2x and 8x oversubscription, i.e. with the number of benchmark threads being
+ * 1, 2 or 8 times the pool size. Reports the take/restore latency distribution and the throughput.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class TakePermitsBenchmark {
+
+    @Param({"semaphore", "spinpark"})
+    public String permits;
+
+    @Param({"1", "2", "8"})
+    public int oversubscription;
+
+    @Param({"false", "true"})
+    public boolean fair;
+
+    /** The amount of CPU work, in JMH {@link Blackhole#consumeCPU} tokens, done while holding the object. */
+    @Param({"100"})
+    public long holdTokens;
+
+    private PoolService<Object> pool;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        int maxSize = Math.max(1, params.getThreads() / oversubscription);
+        TakePermits takePermits = "spinpark".equals(permits)
+                ? new SpinParkPermits(maxSize, fair) : new SemaphorePermits(maxSize, fair);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(),
+                maxSize, maxSize, takePermits, null, 0, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.terminate();
+    }
+
+    @Benchmark
+    public Object takeRestore() {
+        Object object = pool.take();
+        Blackhole.consumeCPU(holdTokens);
+        pool.restore(object);
+        return object;
+    }
+}
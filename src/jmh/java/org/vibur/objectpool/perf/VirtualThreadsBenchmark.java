@@ -0,0 +1,122 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+import org.vibur.objectpool.util.SemaphorePermits;
+import org.vibur.objectpool.util.SpinParkPermits;
+import org.vibur.objectpool.util.TakePermits;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A JMH benchmark which runs {@link #BORROWERS} virtual threads, each of them taking an object from a pool of
+ * {@link #POOL_SIZE} objects, holding it for a while and restoring it. Reports the time needed for all borrowers
+ * to complete. Requires Java 21 or later; the virtual threads executor is obtained via reflection so that this
+ * benchmark compiles with the Java 8 baseline.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final int BORROWERS = 100_000;
+    private static final int POOL_SIZE = 200;
+
+    @Param({"semaphore", "spinpark"})
+    public String permits;
+
+    @Param({"false", "true"})
+    public boolean fair;
+
+    @Param({"deque", "striped", "threadlocal"})
+    public String collection;
+
+    /** The amount of CPU work, in JMH {@link Blackhole#consumeCPU} tokens, done while holding the object. */
+    @Param({"1000"})
+    public long holdTokens;
+
+    private PoolService<Object> pool;
+    private ExecutorService executor;
+    private Runnable borrower;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        TakePermits takePermits = "spinpark".equals(permits)
+                ? new SpinParkPermits(POOL_SIZE, fair) : new SemaphorePermits(POOL_SIZE, fair);
+        pool = new ConcurrentPool<>(ConcurrentPoolBenchmark.newCollection(collection, POOL_SIZE),
+                new SimpleObjectFactory(), POOL_SIZE, POOL_SIZE, takePermits, null, 0, null);
+        borrower = new Runnable() {
+            @Override
+            public void run() {
+                Object object = pool.take();
+                Blackhole.consumeCPU(holdTokens);
+                pool.restore(object);
+            }
+        };
+        executor = newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        pool.terminate();
+    }
+
+    @Benchmark
+    public int takeRestore() throws Exception {
+        Future<?>[] futures = new Future<?>[BORROWERS];
+        for (int i = 0; i < BORROWERS; i++) {
+            futures[i] = executor.submit(borrower);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return pool.remainingCapacity();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("VirtualThreadsBenchmark requires Java 21 or later", e);
+        }
+    }
+}
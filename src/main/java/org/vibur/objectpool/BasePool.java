@@ -16,6 +16,8 @@
 
 package org.vibur.objectpool;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Defines the base object pool operations. These operations include various pool metrics,
  * pool termination methods, and support for shrinking (reduction) of the number of allocated
@@ -72,12 +74,41 @@ public interface BasePool extends AutoCloseable {
     int initialSize();
 
     /**
-     * Returns the {@code maxSize} of this object pool. This parameter never changes.
+     * Returns the {@code maxSize} of this object pool. This parameter never changes, unless the object pool
+     * implementation supports changing its max size at runtime.
      *
      * @return the object pool {@code maxSize}
      */
     int maxSize();
 
+    /**
+     * Returns the {@code minIdle} of this object pool, i.e. the minimum number of created and available (idle)
+     * objects which the object pool tries to maintain. The pool reducers should not reduce the number of
+     * {@link #remainingCreated()} objects below this number. This parameter never changes.
+     *
+     * <p>The default implementation returns {@code 0}, i.e. the object pool does not maintain any idle objects.
+     *
+     * @return the object pool {@code minIdle}
+     */
+    default int minIdle() {
+        return 0;
+    }
+
+
+    /**
+     * Tries to create and add up to {@code increaseBy} new objects to the object pool, without bringing the
+     * object pool {@link #createdTotal()} above its {@link #maxSize()}. The new objects are available
+     * (idle) objects, i.e. they increase the {@link #remainingCreated()} objects of the object pool.
+     *
+     * <p>The default implementation does not create any objects and returns {@code 0}.
+     *
+     * @param increaseBy the desired amount of objects to be created
+     * @return the actual amount of objects created
+     */
+    default int increaseCreatedBy(int increaseBy) {
+        return 0;
+    }
+
 
     /**
      * Tries to remove (and destroy) up to {@code reduceBy} objects from the object pool. This method may
@@ -102,6 +133,47 @@ public interface BasePool extends AutoCloseable {
      */
     int reduceCreatedTo(int reduceTo, boolean ignoreInitialSize);
 
+    /**
+     * Tries to remove (and destroy) up to {@code reduceBy} of the available objects which have been idle (i.e.
+     * not taken) for longer than the given {@code idleTime}, starting from the least recently used end of the
+     * available objects, and stopping at the first object which has not been idle for long enough. This method
+     * may bring the object pool {@link #createdTotal()} to a number less then its {@link #initialSize()}.
+     *
+     * <p>The default implementation does not remove any objects and returns {@code 0}; the object pools which
+     * do not track the idle times of their objects may rely on {@link #reduceCreatedBy} instead.
+     *
+     * @param reduceBy          the maximum amount of objects to be removed
+     * @param idleTime          the time for which an object has to be idle in order to be removed
+     * @param unit              the time unit of the {@code idleTime} argument
+     * @param ignoreInitialSize specifies whether the {@link #createdTotal()} may be
+     *                          reduced to less than {@link #initialSize()}
+     * @return the actual amount of objects removed
+     */
+    default int reduceIdleBy(int reduceBy, long idleTime, TimeUnit unit, boolean ignoreInitialSize) {
+        return 0;
+    }
+
+    /**
+     * Validates up to {@code validateBy} of the available objects, starting from the least recently used end of
+     * the available objects, via the {@link PoolObjectFactory#readyToKeepIdle} validation, which by default is the
+     * same validation which the take operations perform. The objects which pass the validation are made available
+     * again at the least recently used end, in their original order, so that the validation does not make the idle
+     * objects look recently used to {@link #reduceIdleBy} and to the take operations. The objects which fail the
+     * validation are destroyed, and new objects are created in their place, without bringing the object pool
+     * {@link #createdTotal()} above its {@link #maxSize()}.
+     *
+     * <p>This method is intended to be called from a background thread, so that the take operations will rarely
+     * find an invalid object.
+     *
+     * <p>The default implementation does not validate any objects and returns {@code 0}.
+     *
+     * @param validateBy the maximum amount of objects to be validated
+     * @return the amount of objects which failed the validation and were destroyed
+     */
+    default int validateIdle(int validateBy) {
+        return 0;
+    }
+
     /**
      * Tries to remove (and destroy) as many created objects from this object pool as possible.
      * May bring the object pool {@link #createdTotal()} to a number less then its {@link #initialSize()}.
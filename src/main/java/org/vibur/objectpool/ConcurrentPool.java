@@ -16,19 +16,39 @@
 
 package org.vibur.objectpool;
 
+import org.vibur.objectpool.util.CoarseClock;
 import org.vibur.objectpool.util.ConcurrentCollection;
+import org.vibur.objectpool.util.IdentitySlots;
 import org.vibur.objectpool.util.Listener;
-
-import java.util.concurrent.Semaphore;
+import org.vibur.objectpool.util.SemaphorePermits;
+import org.vibur.objectpool.util.TakePermits;
+import org.vibur.objectpool.util.ThreadSupport;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Objects.requireNonNull;
 import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
 
 /**
- * An object pool based on a {@link ConcurrentCollection} guarded by a {@link Semaphore}. If the injected
+ * An object pool based on a {@link ConcurrentCollection} guarded by {@link TakePermits}, which by default
+ * are a {@link java.util.concurrent.Semaphore} based {@link SemaphorePermits} instance. If the injected
  * in the pool {@code ConcurrentCollection} has native implementation for {@code offerFirst()} then
  * this pool will operate in LIFO mode, otherwise in FIFO mode.
  *
@@ -45,8 +65,60 @@ import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument
  * supplied when instantiating the pool, its methods will be called when the pool executes {@code take}
  * or {@code restore} operations.
  *
+ * <p>In addition to the blocking {@code take} operations, the pool provides non-blocking {@link #takeAsync()}
+ * operations which return a {@link CompletableFuture}. When the pool is exhausted the returned futures are queued
+ * in a lock-free waiters queue, and the {@code restore} operations hand the restored objects directly to the
+ * oldest pending futures.
+ *
+ * <p>The {@link #take(int)} and {@link #tryTake(int, long, TimeUnit)} operations accept a priority between
+ * {@link #MIN_PRIORITY} and {@link #MAX_PRIORITY}. When the pool is exhausted, the prioritized takers wait in
+ * the same waiters queue as the async takers, which has one FIFO level per priority; the {@code restore}
+ * operations hand the restored objects to the waiter with the highest priority first. The priority of a waiter
+ * is increased by one level for each {@value #PRIORITY_AGING_MILLIS} milliseconds of waiting, so that the low
+ * priority waiters are not starved. Note that the waiters queue is served ahead of the threads waiting in the
+ * {@code take} operations without a priority.
+ *
+ * <p>The pool can be switched to an overload mode via {@link #setLifoThreshold}. In this mode, the timed
+ * {@code tryTake} operations wait in the waiters queue, too, and while the oldest waiter of a priority level has been
+ * waiting for longer than the threshold, the waiters of this level are served in LIFO order; the newest waiters are
+ * the most likely ones to still meet their deadlines. In any mode, the timed waiters whose timeout has expired are
+ * dropped from the waiters queue instead of being handed an object. The waiting in the waiters queue is reported to
+ * the {@link TakePermits} of the pool, hence, it is limited by {@link org.vibur.objectpool.util.BoundedWaitersPermits}
+ * and recorded by {@link org.vibur.objectpool.util.PoolMetrics} in the same way as the waiting for a permit.
+ *
+ * <p>The {@link #takeLease()} operations return a {@link Lease} handle which restores the taken object to the pool
+ * when closed, and which is intended for use in try-with-resources statements. The lease handles are recycled per
+ * borrowing thread; a closed lease is handed out again only to the thread which has opened it, so that a repeated
+ * close of a lease cannot restore the object of a borrower on another thread.
+ *
+ * <p>If a {@code minIdle} number and a replenisher {@link Executor} have been supplied when instantiating the pool,
+ * the pool will create new objects in the background whenever the number of {@link #remainingCreated()} objects
+ * drops below {@code minIdle}, so that the take operations will need to create objects synchronously only as a last
+ * resort. The background creation never brings the {@link #createdTotal()} above the pool {@link #maxSize()}.
+ *
+ * <p>If a destroyer {@link Executor} has been supplied when instantiating the pool, the objects which are invalid or
+ * are being reduced are destroyed on it, so that the destroying does not delay the take and restore operations.
+ * The {@link #createdTotal()} and the take permits are updated right away, and hence, at most
+ * {@code maxPendingDestroys} objects pending destroying may exist in addition to the pool {@link #maxSize()}.
+ * The {@link #awaitTermination} operation waits for the pending destroys after the pool termination.
+ *
+ * <p>The pool does not use any {@code synchronized} blocks or methods, and its waiting takers are parked via
+ * {@link java.util.concurrent.locks.LockSupport}; hence, the take operations do not pin the virtual threads to their
+ * carrier threads and are suitable for large numbers of virtual threads. When running on Java 21 or later,
+ * {@link org.vibur.objectpool.util.SpinParkPermits} does not spin in virtual threads, and
+ * {@link org.vibur.objectpool.util.ThreadLocalCacheCollection} does not cache objects for them.
+ *
  * <p>This pool also provides support for shrinking (reduction) of the number of allocated in it objects.
  * Note that the shrinking may reduce the {@link #createdTotal()} to less than the pool {@link #initialSize()}.
+ * The {@link #reduceIdleBy} operation reduces only objects which have been idle for longer than a given time;
+ * upon its first call the pool starts recording the times at which its objects are restored, using the
+ * {@link CoarseClock}.
+ *
+ * <p>The {@link #validateIdle} operation validates the least recently used available objects and replaces
+ * the invalid ones; it is intended to be called from a background thread, such as the one of
+ * {@link org.vibur.objectpool.util.IdleValidator}.
+ *
+ * <p>The pool max size can be changed at runtime via {@link #setMaxSize}, without recreating the pool.
  *
  * <p>The pool <b>cannot</b> contain {@code null} objects.
  *
@@ -57,18 +129,46 @@ public class ConcurrentPool<T> implements PoolService<T> {
 
     private static final int RESERVED = 4096;
     private static final int MAX_ALLOWED_SIZE = Integer.MAX_VALUE - RESERVED;
+    private static final int MAX_IDLE_TIMESTAMPS = 1 << 16;
+
+    /** The lowest priority of the prioritized take operations, intended for background and batch work. */
+    public static final int MIN_PRIORITY = 0;
+    /** The priority of the async take operations. */
+    public static final int NORM_PRIORITY = 1;
+    /** The highest priority of the prioritized take operations, intended for health checks. */
+    public static final int MAX_PRIORITY = 3;
+    /** The time after which a waiting prioritized taker is promoted one priority level up. */
+    public static final long PRIORITY_AGING_MILLIS = 100;
+    private static final long PRIORITY_AGING_NANOS = TimeUnit.MILLISECONDS.toNanos(PRIORITY_AGING_MILLIS);
 
     private final ConcurrentCollection<T> available;
-    private final Semaphore takeSemaphore;
+    private final TakePermits takePermits;
 
     private final PoolObjectFactory<T> poolObjectFactory;
     private final Listener<T> listener;
 
     private final int initialSize;
-    private final int maxSize;
+    private final AtomicInteger maxSize;
     private final AtomicInteger createdTotal;
 
+    private final int minIdle;
+    private final Executor replenisher;
+    private final AtomicBoolean replenishing = new AtomicBoolean(false);
+
+    private final Executor destroyer;
+    private final int maxPendingDestroys;
+    private final AtomicInteger pendingDestroys = new AtomicInteger();
+    private final CompletableFuture<Void> destroyed = new CompletableFuture<>();
+
+    private final AsyncTakers asyncTakers = new AsyncTakers();
+    private volatile long lifoThresholdNanos = 0L;
+    private final AtomicInteger asyncDispatchers = new AtomicInteger();
+
+    private final ThreadLocal<WeakReference<PooledLease>> leases = new ThreadLocal<>();
+    private final AtomicReference<IdleTimestamps> idleTimestamps = new AtomicReference<>();
+
     private final AtomicBoolean terminated = new AtomicBoolean(false);
+    private final CompletableFuture<Void> initialFill = new CompletableFuture<>();
 
     /**
      * Creates a new {@code ConcurrentPool} with the given {@link PoolObjectFactory}, initial and max sizes,
@@ -82,7 +182,7 @@ public class ConcurrentPool<T> implements PoolService<T> {
      * @param initialSize       the object pool initial size, i.e. the initial number of
      *                          allocated in the object pool objects; this parameter never changes
      * @param maxSize           the object pool max size, i.e. the max number of allocated
-     *                          in the object pool objects; this parameter never changes
+     *                          in the object pool objects; it can be changed via {@link #setMaxSize}
      * @param fair              the object pool fairness setting with regards to waiting threads
      * @throws IllegalArgumentException if one of the following holds:<br>
      *         {@code initialSize < 0 || maxSize < 1 || maxSize < initialSize}
@@ -105,7 +205,7 @@ public class ConcurrentPool<T> implements PoolService<T> {
      * @param initialSize       the object pool initial size, i.e. the initial number of
      *                          allocated in the object pool objects; this parameter never changes
      * @param maxSize           the object pool max size, i.e. the max number of allocated
-     *                          in the object pool objects; this parameter never changes
+     *                          in the object pool objects; it can be changed via {@link #setMaxSize}
      * @param fair              the object pool fairness setting with regards to waiting threads
      * @param listener          if not {@code null}, this listener instance methods will be called
      *                          when the pool executes {@code take} or {@code restore} operations
@@ -115,9 +215,181 @@ public class ConcurrentPool<T> implements PoolService<T> {
      */
     public ConcurrentPool(ConcurrentCollection<T> available, PoolObjectFactory<T> poolObjectFactory,
                           int initialSize, int maxSize, boolean fair, Listener<T> listener) {
+        this(available, poolObjectFactory, initialSize, maxSize, fair, listener, 0, null);
+    }
+
+    /**
+     * Creates a new {@code ConcurrentPool} with the given {@link PoolObjectFactory}, initial and max sizes,
+     * fairness setting, and min idle objects replenishing settings.
+     *
+     * @param available         the concurrent collection that will store the pooled objects;
+     *                          it must be an empty collection or a collection pre-initialized with
+     *                          {@code initialSize} objects
+     * @param poolObjectFactory the factory which will be used to create new objects
+     *                          in this object pool as well as to control their lifecycle
+     * @param initialSize       the object pool initial size, i.e. the initial number of
+     *                          allocated in the object pool objects; this parameter never changes
+     * @param maxSize           the object pool max size, i.e. the max number of allocated
+     *                          in the object pool objects; it can be changed via {@link #setMaxSize}
+     * @param fair              the object pool fairness setting with regards to waiting threads
+     * @param listener          if not {@code null}, this listener instance methods will be called
+     *                          when the pool executes {@code take} or {@code restore} operations
+     * @param minIdle           the minimum number of created and available (idle) objects which the pool
+     *                          will try to maintain; the pool reducers will also not reduce the idle objects
+     *                          below this number
+     * @param replenisher       if not {@code null}, the executor on which the pool will create new objects
+     *                          in the background whenever the {@link #remainingCreated()} objects drop
+     *                          below {@code minIdle}
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code initialSize < 0 || maxSize < 1 || maxSize < initialSize || minIdle < 0 || minIdle > maxSize}
+     * @throws NullPointerException if {@code available} or {@code poolObjectFactory} are null
+     */
+    public ConcurrentPool(ConcurrentCollection<T> available, PoolObjectFactory<T> poolObjectFactory,
+                          int initialSize, int maxSize, boolean fair, Listener<T> listener,
+                          int minIdle, Executor replenisher) {
+        this(available, poolObjectFactory, initialSize, maxSize, new SemaphorePermits(maxSize, fair), listener,
+                minIdle, replenisher);
+    }
+
+    /**
+     * Creates a new {@code ConcurrentPool} with the given {@link PoolObjectFactory}, initial and max sizes,
+     * take permits, and min idle objects replenishing settings.
+     *
+     * @param available         the concurrent collection that will store the pooled objects;
+     *                          it must be an empty collection or a collection pre-initialized with
+     *                          {@code initialSize} objects
+     * @param poolObjectFactory the factory which will be used to create new objects
+     *                          in this object pool as well as to control their lifecycle
+     * @param initialSize       the object pool initial size, i.e. the initial number of
+     *                          allocated in the object pool objects; this parameter never changes
+     * @param maxSize           the object pool max size, i.e. the max number of allocated
+     *                          in the object pool objects; it can be changed via {@link #setMaxSize}
+     * @param takePermits       the permits guarding the object pool take operations; they must have
+     *                          exactly {@code maxSize} permits available and must not be shared with
+     *                          other object pools; their fairness setting is the object pool fairness setting
+     * @param listener          if not {@code null}, this listener instance methods will be called
+     *                          when the pool executes {@code take} or {@code restore} operations
+     * @param minIdle           the minimum number of created and available (idle) objects which the pool
+     *                          will try to maintain; the pool reducers will also not reduce the idle objects
+     *                          below this number
+     * @param replenisher       if not {@code null}, the executor on which the pool will create new objects
+     *                          in the background whenever the {@link #remainingCreated()} objects drop
+     *                          below {@code minIdle}
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code initialSize < 0 || maxSize < 1 || maxSize < initialSize || minIdle < 0 || minIdle > maxSize
+     *         || takePermits.availablePermits() != maxSize}
+     * @throws NullPointerException if {@code available}, {@code poolObjectFactory} or {@code takePermits} are null
+     */
+    public ConcurrentPool(ConcurrentCollection<T> available, PoolObjectFactory<T> poolObjectFactory,
+                          int initialSize, int maxSize, TakePermits takePermits, Listener<T> listener,
+                          int minIdle, Executor replenisher) {
+        this(available, poolObjectFactory, initialSize, maxSize, takePermits, listener, minIdle, replenisher, 1, false);
+    }
+
+    /**
+     * Creates a new {@code ConcurrentPool} with the given {@link PoolObjectFactory}, initial and max sizes,
+     * take permits, min idle objects replenishing settings, and initial objects filling settings.
+     *
+     * @param available         the concurrent collection that will store the pooled objects;
+     *                          it must be an empty collection or a collection pre-initialized with
+     *                          {@code initialSize} objects
+     * @param poolObjectFactory the factory which will be used to create new objects
+     *                          in this object pool as well as to control their lifecycle
+     * @param initialSize       the object pool initial size, i.e. the initial number of
+     *                          allocated in the object pool objects; this parameter never changes
+     * @param maxSize           the object pool max size, i.e. the max number of allocated
+     *                          in the object pool objects; it can be changed via {@link #setMaxSize}
+     * @param takePermits       the permits guarding the object pool take operations; they must have
+     *                          exactly {@code maxSize} permits available and must not be shared with
+     *                          other object pools; their fairness setting is the object pool fairness setting
+     * @param listener          if not {@code null}, this listener instance methods will be called
+     *                          when the pool executes {@code take} or {@code restore} operations
+     * @param minIdle           the minimum number of created and available (idle) objects which the pool
+     *                          will try to maintain; the pool reducers will also not reduce the idle objects
+     *                          below this number
+     * @param replenisher       if not {@code null}, the executor on which the pool will create new objects
+     *                          in the background whenever the {@link #remainingCreated()} objects drop
+     *                          below {@code minIdle}, and on which the initial objects will be created
+     *                          if {@code fillParallelism > 1} or {@code asyncFill} is set
+     * @param fillParallelism   the max number of initial objects which will be created at the same time;
+     *                          if greater than {@code 1}, the initial objects will be created on the
+     *                          {@code replenisher}, and the calling thread will also create initial objects
+     *                          unless {@code asyncFill} is set
+     * @param asyncFill         if {@code true}, the initial objects will be created on the {@code replenisher} and
+     *                          this constructor will return without waiting for their creation; until the filling
+     *                          is finished, the take operations will wait for the first initial object which becomes
+     *                          available instead of creating their own objects, and the outcome of the filling
+     *                          is reported by the {@link #initialFill()} future
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code initialSize < 0 || maxSize < 1 || maxSize < initialSize || minIdle < 0 || minIdle > maxSize
+     *         || takePermits.availablePermits() != maxSize || fillParallelism < 1
+     *         || (fillParallelism > 1 || asyncFill) && replenisher == null}
+     * @throws NullPointerException if {@code available}, {@code poolObjectFactory} or {@code takePermits} are null
+     */
+    public ConcurrentPool(ConcurrentCollection<T> available, PoolObjectFactory<T> poolObjectFactory,
+                          int initialSize, int maxSize, TakePermits takePermits, Listener<T> listener,
+                          int minIdle, Executor replenisher, int fillParallelism, boolean asyncFill) {
+        this(available, poolObjectFactory, initialSize, maxSize, takePermits, listener, minIdle, replenisher,
+                fillParallelism, asyncFill, null, 0);
+    }
+
+    /**
+     * Creates a new {@code ConcurrentPool} with the given {@link PoolObjectFactory}, initial and max sizes,
+     * take permits, min idle objects replenishing settings, initial objects filling settings, and asynchronous
+     * destroying settings.
+     *
+     * @param available         the concurrent collection that will store the pooled objects;
+     *                          it must be an empty collection or a collection pre-initialized with
+     *                          {@code initialSize} objects
+     * @param poolObjectFactory the factory which will be used to create new objects
+     *                          in this object pool as well as to control their lifecycle
+     * @param initialSize       the object pool initial size, i.e. the initial number of
+     *                          allocated in the object pool objects; this parameter never changes
+     * @param maxSize           the object pool max size, i.e. the max number of allocated
+     *                          in the object pool objects; it can be changed via {@link #setMaxSize}
+     * @param takePermits       the permits guarding the object pool take operations; they must have
+     *                          exactly {@code maxSize} permits available and must not be shared with
+     *                          other object pools; their fairness setting is the object pool fairness setting
+     * @param listener          if not {@code null}, this listener instance methods will be called
+     *                          when the pool executes {@code take} or {@code restore} operations
+     * @param minIdle           the minimum number of created and available (idle) objects which the pool
+     *                          will try to maintain; the pool reducers will also not reduce the idle objects
+     *                          below this number
+     * @param replenisher       if not {@code null}, the executor on which the pool will create new objects
+     *                          in the background whenever the {@link #remainingCreated()} objects drop
+     *                          below {@code minIdle}, and on which the initial objects will be created
+     *                          if {@code fillParallelism > 1} or {@code asyncFill} is set
+     * @param fillParallelism   the max number of initial objects which will be created at the same time;
+     *                          if greater than {@code 1}, the initial objects will be created on the
+     *                          {@code replenisher}, and the calling thread will also create initial objects
+     *                          unless {@code asyncFill} is set
+     * @param asyncFill         if {@code true}, the initial objects will be created on the {@code replenisher} and
+     *                          this constructor will return without waiting for their creation; until the filling
+     *                          is finished, the take operations will wait for the first initial object which becomes
+     *                          available instead of creating their own objects, and the outcome of the filling
+     *                          is reported by the {@link #initialFill()} future
+     * @param destroyer         if not {@code null}, the executor on which the pool will destroy its objects,
+     *                          so that the destroying does not delay the calling threads
+     * @param maxPendingDestroys the max number of objects which can be pending destroying on the {@code destroyer};
+     *                          when reached, the objects are destroyed by the calling threads
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code initialSize < 0 || maxSize < 1 || maxSize < initialSize || minIdle < 0 || minIdle > maxSize
+     *         || takePermits.availablePermits() != maxSize || fillParallelism < 1
+     *         || (fillParallelism > 1 || asyncFill) && replenisher == null || maxPendingDestroys < 0}
+     * @throws NullPointerException if {@code available}, {@code poolObjectFactory} or {@code takePermits} are null
+     */
+    public ConcurrentPool(ConcurrentCollection<T> available, PoolObjectFactory<T> poolObjectFactory,
+                          int initialSize, int maxSize, TakePermits takePermits, Listener<T> listener,
+                          int minIdle, Executor replenisher, int fillParallelism, boolean asyncFill,
+                          Executor destroyer, int maxPendingDestroys) {
 		forbidIllegalArgument(initialSize < 0, String.format("Initial size %s should be >= 0", initialSize));
 		forbidIllegalArgument(maxSize < 1 || maxSize < initialSize || maxSize > MAX_ALLOWED_SIZE, String.format(
 				"maxSize %s should be between %s %s this is now not the case", maxSize, MAX_ALLOWED_SIZE, initialSize));
+		forbidIllegalArgument(minIdle < 0 || minIdle > maxSize, String.format("minIdle %s should be between 0 and %s", minIdle, maxSize));
+		forbidIllegalArgument(takePermits.availablePermits() != maxSize, String.format("takePermits %s should be == maxSize %s", takePermits.availablePermits(), maxSize));
+		forbidIllegalArgument(fillParallelism < 1, String.format("fillParallelism %s should be >= 1", fillParallelism));
+		forbidIllegalArgument((fillParallelism > 1 || asyncFill) && replenisher == null, "replenisher is required for parallel or async fill");
+		forbidIllegalArgument(maxPendingDestroys < 0, String.format("maxPendingDestroys %s should be >= 0", maxPendingDestroys));
 		int availableSize = available.size();
 		forbidIllegalArgument(availableSize != 0 && availableSize != initialSize, String.format("availableSize == initialSize (%s != %s)", availableSize, initialSize));
 
@@ -126,12 +398,29 @@ public class ConcurrentPool<T> implements PoolService<T> {
         this.listener = listener;
 
         this.initialSize = initialSize;
-        this.maxSize = maxSize;
-        this.takeSemaphore = new Semaphore(maxSize, fair);
+        this.maxSize = new AtomicInteger(maxSize);
+        this.takePermits = takePermits;
+
+        this.minIdle = minIdle;
+        this.replenisher = replenisher;
+
+        this.destroyer = destroyer;
+        this.maxPendingDestroys = maxPendingDestroys;
 
         this.createdTotal = new AtomicInteger(availableSize);
-        if (availableSize == 0) {
-            addInitialObjects();
+        if (availableSize == 0 && initialSize > 0) {
+            if (fillParallelism > 1 || asyncFill) {
+                addInitialObjects(fillParallelism, asyncFill);
+            }
+            else {
+                addInitialObjects();
+            }
+        }
+        else {
+            initialFill.complete(null);
+        }
+        if (!asyncFill) {
+            replenishIfNeeded(); // otherwise called when the initial objects have been created
         }
     }
 
@@ -143,14 +432,59 @@ public class ConcurrentPool<T> implements PoolService<T> {
             }
         } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
             drainCreated();
+            initialFill.completeExceptionally(t);
             throw t;
         }
+        initialFill.complete(null);
+    }
+
+    /**
+     * Creates the initial objects on up to {@code parallelism} threads of the {@code replenisher}. All permits
+     * of the pool are acquired upfront, and each permit of an initial object is released when its object is created,
+     * so that the takers wait for the first created object instead of creating their own objects. The permits in
+     * excess of the initial size are released when the filling is finished.
+     */
+    private void addInitialObjects(int parallelism, boolean async) {
+        takePermits.tryAcquire(maxSize.get()); // always succeeds, as the pool is not yet published
+        InitialFill fill = async ? new InitialFill(Math.min(parallelism, initialSize), true)
+                : new InitialFill(Math.min(parallelism - 1, initialSize - 1), false);
+        for (int i = 0; i < fill.workers; i++) {
+            try {
+                replenisher.execute(fill);
+            } catch (RejectedExecutionException e) {
+                fill.fail(e);
+                fill.run(); // accounts for the rejected worker
+            }
+        }
+        if (async) {
+            return;
+        }
+
+        fill.run(); // the calling thread is one of the workers
+        fill.done.join();
+        Throwable thrown = fill.thrown.get();
+        if (thrown != null) {
+            drainCreated();
+            ConcurrentPool.<RuntimeException>sneakyThrow(thrown);
+        }
+    }
+
+    /**
+     * Returns a future which is completed when all initial objects of this pool have been created, or which is
+     * completed exceptionally with the exception thrown by the first failed creation, in which case the pool
+     * continues with the already created initial objects, and the take operations will create the missing
+     * objects as needed. This future is always completed when the pool is not created with {@code asyncFill}.
+     *
+     * @return see above
+     */
+    public CompletableFuture<Void> initialFill() {
+        return initialFill;
     }
 
     @Override
     public T take() {
         try {
-            takeSemaphore.acquire();
+            takePermits.acquire();
             return takeObject();
         } catch (InterruptedException ignored) {
             Thread.currentThread().interrupt(); // ignore and reset
@@ -163,7 +497,7 @@ public class ConcurrentPool<T> implements PoolService<T> {
         try {
             long startTime = System.nanoTime();
             try {
-                takeSemaphore.acquire();
+                takePermits.acquire();
             } finally {
                 waitedNanos[0] = System.nanoTime() - startTime;
             }
@@ -177,7 +511,7 @@ public class ConcurrentPool<T> implements PoolService<T> {
 
     @Override
     public T takeUninterruptibly() {
-        takeSemaphore.acquireUninterruptibly();
+        takePermits.acquireUninterruptibly();
         return takeObject();
     }
 
@@ -185,7 +519,7 @@ public class ConcurrentPool<T> implements PoolService<T> {
     public T takeUninterruptibly(long[] waitedNanos) {
         long startTime = System.nanoTime();
         try {
-            takeSemaphore.acquireUninterruptibly();
+            takePermits.acquireUninterruptibly();
         } finally {
             waitedNanos[0] = System.nanoTime() - startTime;
         }
@@ -195,8 +529,11 @@ public class ConcurrentPool<T> implements PoolService<T> {
 
     @Override
     public T tryTake(long timeout, TimeUnit unit) {
+        if (lifoThresholdNanos > 0) {
+            return takeQueued(NORM_PRIORITY, true, unit.toNanos(timeout));
+        }
         try {
-            if (!takeSemaphore.tryAcquire(timeout, unit)) {
+            if (!takePermits.tryAcquire(timeout, unit)) {
                 return null;
             }
             return takeObject();
@@ -208,10 +545,18 @@ public class ConcurrentPool<T> implements PoolService<T> {
 
     @Override
     public T tryTake(long timeout, TimeUnit unit, long[] waitedNanos) {
+        if (lifoThresholdNanos > 0) {
+            long startTime = System.nanoTime();
+            try {
+                return takeQueued(NORM_PRIORITY, true, unit.toNanos(timeout));
+            } finally {
+                waitedNanos[0] = System.nanoTime() - startTime;
+            }
+        }
         try {
             long startTime = System.nanoTime();
             try {
-                if (!takeSemaphore.tryAcquire(timeout, unit)) {
+                if (!takePermits.tryAcquire(timeout, unit)) {
                     return null;
                 }
             } finally {
@@ -227,148 +572,612 @@ public class ConcurrentPool<T> implements PoolService<T> {
 
     @Override
     public T tryTake() {
-        if (!takeSemaphore.tryAcquire()) {
+        if (!takePermits.tryAcquire()) {
             return null;
         }
         return takeObject();
     }
 
-    private T takeObject() {
-        T object = prepareToTake(available.pollFirst());
-
-        if (listener != null) {
-            listener.onTake(object);
-        }
-
-        if (isTerminated()) {
-            restore(object, false);
-            return null;
-        }
-
-        return object;
+    /**
+     * Takes an object from the object pool as described in {@link #take()}, and if the pool is exhausted, waits
+     * ahead of the takers with a lower priority as described in the class documentation.
+     *
+     * @param priority the priority of this taker, between {@link #MIN_PRIORITY} and {@link #MAX_PRIORITY}
+     * @return an object taken from the object pool or {@code null} if was interrupted while waiting
+     * @throws IllegalArgumentException if the priority is out of range
+     */
+    public T take(int priority) {
+        return takePrioritized(priority, false, 0L);
     }
 
-    @Override
-    public void restore(T object) {
-        restore(object, true);
+    /**
+     * Tries to take an object from the object pool as described in {@link #tryTake(long, TimeUnit)}, and if the
+     * pool is exhausted, waits ahead of the takers with a lower priority as described in the class documentation.
+     *
+     * @param priority the priority of this taker, between {@link #MIN_PRIORITY} and {@link #MAX_PRIORITY}
+     * @param timeout the maximum time to wait for an object to become available in the object pool;
+     *                this timeout does not include the object creation time
+     * @param unit the time unit of the {@code timeout} argument
+     * @return an object taken from the object pool or {@code null} if the specified timeout expires
+     * or if it was interrupted while waiting
+     * @throws IllegalArgumentException if the priority is out of range
+     */
+    public T tryTake(int priority, long timeout, TimeUnit unit) {
+        return takePrioritized(priority, true, unit.toNanos(timeout));
     }
 
-    @Override
-    public void restore(T object, boolean valid) {
-        boolean ready = readyToRestore(requireNonNull(object), valid);
-
-        if (listener != null) {
-            listener.onRestore(object);
-        }
-
-        if (ready) {
-            available.offerFirst(object);
-        }
-        takeSemaphore.release();
-
-        if (isTerminated() && valid) {
-            terminate();
+    private T takePrioritized(int priority, boolean timed, long nanos) {
+        if (priority < MIN_PRIORITY || priority > MAX_PRIORITY) { // avoids the formatting of the message on the hot path
+            forbidIllegalArgument(true, String.format("priority %s should be between %s and %s",
+                    priority, MIN_PRIORITY, MAX_PRIORITY));
         }
+        return takeQueued(priority, timed, nanos);
     }
 
     /**
-     * Verifies whether the given object is valid and whether it can be given to the calling application.
-     * If the object is {@code null}, a new object will be created and returned. If the object
-     * is not {@code null}, it will be validated and if the validation fails, a new object will be created
-     * and returned; otherwise a reference to the object itself will be returned. This method <b>never</b>
-     * returns {@code null}.
-     *
-     * @param object the object to be validated
-     * @return see above
+     * Takes an object right away if there are no waiters and a permit is available, otherwise waits
+     * in the waiters queue. The waiting is reported to the take permits, which may reject it.
      */
-    private T prepareToTake(T object) {
+    private T takeQueued(int priority, boolean timed, long nanos) {
+        if (asyncTakers.isEmpty() && takePermits.tryAcquire()) {
+            return takeObject();
+        }
+
+        takePermits.enterQueue();
+        long startTime = System.nanoTime();
+        boolean timedOut = false;
+        boolean interrupted = false;
         try {
-            if (object == null) {
-                createdTotal.incrementAndGet();
-                object = requireNonNull(poolObjectFactory.create());
+            if (timed && nanos <= 0) {
+                timedOut = true; // the take is reported to the permits as a timeout, without waiting in the queue
+                return null;
             }
-            else {
-                boolean ready = false;
-                try {
-                    ready = poolObjectFactory.readyToTake(object);
-                } finally {
-                    if (!ready) {
-                        poolObjectFactory.destroy(object);
-                    }
-                }
-                if (!ready) {
-                    object = requireNonNull(poolObjectFactory.create());
+
+            AsyncTaker taker = new AsyncTaker(priority, timed, nanos);
+            enqueueAsyncTaker(taker);
+            try {
+                T object = timed ? taker.get(nanos, TimeUnit.NANOSECONDS) : taker.get();
+                timedOut = object == null && timed && !isTerminated(); // has been dropped past its deadline
+                return object;
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt(); // ignore and reset
+                interrupted = true;
+            } catch (TimeoutException ignored) {
+                timedOut = true; // returns null
+            } catch (ExecutionException e) {
+                if (!isTerminated()) {
+                    ConcurrentPool.<RuntimeException>sneakyThrow(e.getCause()); // thrown by the object creation or validation
                 }
+                return null;
             }
 
-            return object;
-        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
-            recoverInnerState();
-            throw t;
+            if (!taker.cancel(false) && !taker.isCompletedExceptionally()) {
+                T object = taker.getNow(null); // was completed in the meantime
+                if (object != null) {
+                    timedOut = false;
+                    restore(object);
+                }
+            }
+            return null;
+        } finally {
+            takePermits.exitQueue(System.nanoTime() - startTime, timedOut, interrupted);
         }
     }
 
-    /**
-     * Verifies whether the given object is valid and whether it can be restored back to the pool. Returns {@code true}
-     * if the object is valid; otherwise returns {@code false}.
-     *
-     * @param object the object that is to be restored to the pool and that needs to be validated
-     * @param valid if {@code false}, the object is treated as invalid; otherwise a secondary validation on the object
-     *              will be performed
-     * @return see above
-     */
-    private boolean readyToRestore(T object, boolean valid) {
+    @Override
+    public int takeMany(T[] objects, int n, long timeout, TimeUnit unit) {
+        checkBatchSize(objects, n);
+
+        int permits = acquirePermits(n, timeout, unit);
+        if (permits == 0) {
+            return 0;
+        }
+
+        int polled = available.pollFirst(objects, permits);
+        int taken = 0;
+        int i = 0;
         try {
-            boolean ready = false;
-            try {
-                ready = valid && poolObjectFactory.readyToRestore(object);
-            } finally {
-                if (!ready) {
-                    poolObjectFactory.destroy(object);
+            for (; i < permits; i++) {
+                T object = takeObject(i < polled ? objects[i] : null);
+                if (object != null) {
+                    objects[taken++] = object;
                 }
             }
-            if (!ready) {
-                createdTotal.decrementAndGet();
-            }
-
-            return ready;
         } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
-            recoverInnerState();
+            // the permit for the i-th object has been already released by prepareToTake()
+            for (int j = i + 1; j < polled; j++) {
+                available.offerFirst(objects[j]);
+            }
+            if (permits - i - 1 > 0) {
+                releasePermits(permits - i - 1);
+            }
+            for (int j = 0; j < taken; j++) {
+                restore(objects[j]);
+            }
+            Arrays.fill(objects, 0, permits, null);
             throw t;
         }
+
+        Arrays.fill(objects, taken, permits, null);
+        return taken;
     }
 
-    private void recoverInnerState() {
-        createdTotal.decrementAndGet();
-        takeSemaphore.release();
+    private static void checkBatchSize(Object[] objects, int n) {
+        if (n < 0 || n > objects.length) { // avoids the formatting of the message on the hot path
+            forbidIllegalArgument(true, String.format("n %s should be between 0 and %s", n, objects.length));
+        }
     }
 
+    /**
+     * Acquires {@code n} permits waiting up to the given timeout, or if the timeout expires,
+     * as many permits as are immediately available. The pending async and prioritized takers are served first.
+     */
+    private int acquirePermits(int n, long timeout, TimeUnit unit) {
+        if (n == 0) {
+            return 0;
+        }
+        if (!asyncTakers.isEmpty()) {
+            dispatchAsyncTakers(); // the batch gets only the permits which the queued takers do not need
+        }
+        try {
+            if (takePermits.tryAcquire(n, timeout, unit)) {
+                return n;
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt(); // ignore and reset
+            return 0;
+        }
 
-    @Override
-    public Listener<T> listener() {
-        return listener;
+        int permits;
+        while (asyncTakers.isEmpty() && (permits = Math.min(n, takePermits.availablePermits())) > 0) {
+            if (takePermits.tryAcquire(permits)) {
+                return permits;
+            }
+        }
+        return 0;
     }
 
     @Override
-    public int taken() {
-        return !isTerminated() ? calculateTaken() : createdTotal();
-    }
-
-    private int calculateTaken() {
-        return maxSize() - remainingCapacity();
+    public Lease<T> takeLease() {
+        return lease(take());
     }
 
     @Override
-    public int remainingCreated() {
-        return !isTerminated() ? createdTotal() - calculateTaken() : 0;
+    public Lease<T> tryTakeLease(long timeout, TimeUnit unit) {
+        return lease(tryTake(timeout, unit));
     }
 
-    @Override
-    public int drainCreated() {
-        return reduceCreatedTo(0, true);
+    /**
+     * Tries to take an available object without waiting and without creating a new object; a new object is
+     * created only if the taken one fails the validation. Used by {@link ShardedPool} to take the idle objects
+     * of all shards before growing any of them.
+     *
+     * @return an object taken from the object pool or {@code null} if there was no available object
+     */
+    T tryTakeAvailable() {
+        if (!takePermits.tryAcquire()) {
+            return null;
+        }
+        T object = available.pollFirst();
+        if (object == null) {
+            releasePermit();
+            return null;
+        }
+        return takeObject(object);
     }
 
-    @Override
+    /**
+     * Opens a lease of an object taken as described in {@link #tryTakeAvailable()}.
+     *
+     * @return a lease of the taken object or {@code null} if there was no available object
+     */
+    Lease<T> tryTakeAvailableLease() {
+        return lease(tryTakeAvailable());
+    }
+
+    /**
+     * Opens a lease of the given object. The leases are recycled per thread: each thread hands out again only the
+     * last lease which it has opened, and only once that lease is closed. Hence, a lease closed by its borrower is
+     * not handed out to the borrowers on other threads, and the repeated {@code close} calls of the borrower, such as
+     * the implicit one at the end of a try-with-resources statement, cannot close the lease of another borrower.
+     * The virtual threads get a new lease for every borrowing, as there may be millions of them.
+     *
+     * <p>The recycled lease is only weakly referenced from the thread, as the lease references this pool and its
+     * last leased object; hence, a long-lived borrowing thread does not retain this pool after it is no longer
+     * used, and may need a new lease after a garbage collection. The entry of the terminating thread is removed
+     * on {@link #terminate()}.
+     */
+    private Lease<T> lease(T object) {
+        if (object == null) {
+            return null;
+        }
+        if (ThreadSupport.isVirtual(Thread.currentThread())) {
+            PooledLease lease = new PooledLease();
+            lease.open(object);
+            return lease;
+        }
+        WeakReference<PooledLease> ref = leases.get();
+        PooledLease lease = ref != null ? ref.get() : null;
+        if (lease == null || !lease.isClosed()) { // e.g., the previous lease is still open or has been handed over
+            lease = new PooledLease();
+            leases.set(new WeakReference<>(lease));
+        }
+        lease.open(object);
+        return lease;
+    }
+
+    /**
+     * Takes an object from the object pool asynchronously. If there is an object immediately available in the pool
+     * (or one can be created), the returned future is already completed with it; otherwise the future is queued
+     * and will be completed by the first {@code restore} operation which finds it at the head of the waiters queue.
+     * The object may need to be created as described in {@link #tryTake(long, TimeUnit, long[])}. Cancelling the
+     * returned future removes it from the waiters queue.
+     *
+     * <p>Note that the returned future may be completed by a thread calling {@code restore}, and the non-async
+     * dependent actions of the future will be executed by that thread.
+     *
+     * @return a future which will be completed with an object taken from the object pool, or exceptionally with
+     * {@link IllegalStateException} if the object pool is terminated while the future is pending
+     */
+    public CompletableFuture<T> takeAsync() {
+        AsyncTaker taker = new AsyncTaker();
+        enqueueAsyncTaker(taker);
+        return taker;
+    }
+
+    /**
+     * Takes an object from the object pool asynchronously as described in {@link #takeAsync()}, waiting up to the
+     * specified {@code timeout} for an object to become available. If the timeout expires before an object was
+     * handed to the returned future, the future is completed with {@code null}, consistently with the
+     * {@link #tryTake(long, TimeUnit)} operation.
+     *
+     * @param timeout the maximum time to wait for an object to become available in the object pool;
+     *                this timeout does not include the object creation time
+     * @param unit the time unit of the {@code timeout} argument
+     * @return a future which will be completed with an object taken from the object pool, with {@code null} if
+     * the specified timeout expires, or exceptionally with {@link IllegalStateException} if the object pool is
+     * terminated while the future is pending
+     */
+    public CompletableFuture<T> takeAsync(long timeout, TimeUnit unit) {
+        AsyncTaker taker = new AsyncTaker(NORM_PRIORITY, true, unit.toNanos(timeout));
+        enqueueAsyncTaker(taker);
+        if (!taker.isDone()) {
+            if (timeout <= 0) {
+                taker.expire();
+            }
+            else {
+                taker.scheduleTimeout(timeout, unit);
+            }
+        }
+        return taker;
+    }
+
+    private void enqueueAsyncTaker(AsyncTaker taker) {
+        if (asyncTakers.isEmpty() && takePermits.tryAcquire()) {
+            completeAsyncTaker(taker, available.pollFirst());
+            return;
+        }
+
+        asyncTakers.add(taker);
+        dispatchAsyncTakers(); // a permit may have been released after the above tryAcquire() call
+        if (isTerminated()) {
+            failAsyncTakers();
+        }
+    }
+
+    /**
+     * Completes the pending async takers for as long as there are permits available. Only one thread at a time
+     * is dispatching; if another thread requests dispatching in the meantime, the dispatching thread will loop again.
+     */
+    private void dispatchAsyncTakers() {
+        if (asyncDispatchers.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            while (!asyncTakers.isEmpty() && takePermits.tryAcquire()) {
+                AsyncTaker taker = pollAsyncTaker();
+                if (taker == null) {
+                    takePermits.release();
+                    continue;
+                }
+                completeAsyncTaker(taker, available.pollFirst());
+            }
+            missed = asyncDispatchers.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Completes the given async taker with the given {@code object}, or with a newly created object if the given
+     * object is {@code null}. The calling thread must hold a take permit, which is transferred to the taker.
+     */
+    private void completeAsyncTaker(AsyncTaker taker, T object) {
+        T taken;
+        try {
+            taken = takeObject(object);
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            taker.completeExceptionally(t);
+            return;
+        }
+
+        if (taken == null) {
+            taker.completeExceptionally(terminatedException());
+        }
+        else if (!taker.complete(taken)) { // the taker was cancelled or has expired in the meantime
+            restore(taken);
+        }
+    }
+
+    private AsyncTaker pollAsyncTaker() {
+        AsyncTaker taker;
+        do {
+            taker = asyncTakers.poll();
+        } while (taker != null && (taker.isDone() || taker.expireIfPastDeadline())); // skips the cancelled or expired takers
+        return taker;
+    }
+
+    private void failAsyncTakers() {
+        AsyncTaker taker;
+        while ((taker = asyncTakers.poll()) != null) {
+            taker.completeExceptionally(terminatedException());
+        }
+    }
+
+    private static IllegalStateException terminatedException() {
+        return new IllegalStateException("ConcurrentPool is terminated");
+    }
+
+    private T takeObject() {
+        return takeObject(available.pollFirst());
+    }
+
+    private T takeObject(T object) {
+        object = prepareToTake(object);
+        replenishIfNeeded();
+
+        if (listener != null) {
+            listener.onTake(object);
+        }
+
+        if (isTerminated()) {
+            restore(object, false);
+            return null;
+        }
+
+        return object;
+    }
+
+    @Override
+    public void restore(T object) {
+        restore(object, true);
+    }
+
+    @Override
+    public void restore(T object, boolean valid) {
+        boolean ready = readyToRestore(requireNonNull(object), valid);
+
+        if (listener != null) {
+            listener.onRestore(object);
+        }
+
+        if (ready) {
+            AsyncTaker taker = !asyncTakers.isEmpty() && takePermits.availablePermits() >= 0 ? pollAsyncTaker() : null;
+            if (taker != null) { // hands the object and the permit over to the oldest pending async taker
+                completeAsyncTaker(taker, object);
+                return;
+            }
+            markIdle(object);
+            available.offerFirst(object);
+        }
+        releasePermit();
+
+        if (!ready) {
+            replenishIfNeeded();
+        }
+        if (isTerminated() && valid) {
+            terminate();
+        }
+    }
+
+    private void replenishIfNeeded() {
+        // the permits held back during the initial filling are not accounted as taken objects
+        if (replenisher != null && initialFill.isDone() && remainingCreated() < minIdle
+                && replenishing.compareAndSet(false, true)) {
+            try {
+                replenisher.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        replenish();
+                    }
+                });
+            } catch (RejectedExecutionException ignored) {
+                replenishing.set(false); // the take operations will create the objects if needed
+            }
+        }
+    }
+
+    private void replenish() {
+        try {
+            int missing;
+            while ((missing = minIdle - remainingCreated()) > 0 && !isTerminated()) {
+                if (increaseCreatedBy(missing) == 0) {
+                    break;
+                }
+            }
+        } finally {
+            replenishing.set(false);
+        }
+    }
+
+    @Override
+    public void restoreAll(T[] objects, int n, boolean valid) {
+        checkBatchSize(objects, n);
+        for (int i = 0; i < n; i++) {
+            requireNonNull(objects[i]);
+        }
+
+        int ready = 0;
+        int recovered = 0;
+        Throwable thrown = null;
+        for (int i = 0; i < n; i++) {
+            T object = objects[i];
+            try {
+                if (!readyToRestore(object, valid)) {
+                    object = null;
+                }
+            } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+                recovered++; // the permit has been already released by readyToRestore()
+                if (thrown == null) {
+                    thrown = t;
+                }
+                continue;
+            }
+
+            if (listener != null) {
+                listener.onRestore(objects[i]);
+            }
+            objects[i] = null;
+            if (object != null) {
+                markIdle(object);
+                objects[ready++] = object;
+            }
+        }
+
+        available.offerFirst(objects, ready);
+        Arrays.fill(objects, 0, n, null);
+        if (n - recovered > 0) {
+            releasePermits(n - recovered);
+        }
+        if (ready < n) {
+            replenishIfNeeded();
+        }
+
+        if (isTerminated() && valid) {
+            terminate();
+        }
+        if (thrown != null) {
+            ConcurrentPool.<RuntimeException>sneakyThrow(thrown);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> void sneakyThrow(Throwable t) throws E {
+        throw (E) t;
+    }
+
+    private void releasePermit() {
+        takePermits.release();
+        if (!asyncTakers.isEmpty()) {
+            dispatchAsyncTakers();
+        }
+    }
+
+    private void releasePermits(int permits) {
+        takePermits.release(permits);
+        if (!asyncTakers.isEmpty()) {
+            dispatchAsyncTakers();
+        }
+    }
+
+    /**
+     * Verifies whether the given object is valid and whether it can be given to the calling application.
+     * If the object is {@code null}, a new object will be created and returned. If the object
+     * is not {@code null}, it will be validated and if the validation fails, a new object will be created
+     * and returned; otherwise a reference to the object itself will be returned. This method <b>never</b>
+     * returns {@code null}.
+     *
+     * @param object the object to be validated
+     * @return see above
+     */
+    private T prepareToTake(T object) {
+        try {
+            if (object == null) {
+                createdTotal.incrementAndGet();
+                object = requireNonNull(poolObjectFactory.create());
+            }
+            else {
+                boolean ready = false;
+                try {
+                    ready = poolObjectFactory.readyToTake(object);
+                } finally {
+                    if (!ready) {
+                        destroy(object);
+                    }
+                }
+                if (!ready) {
+                    object = requireNonNull(poolObjectFactory.create());
+                }
+            }
+
+            return object;
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            recoverInnerState();
+            throw t;
+        }
+    }
+
+    /**
+     * Verifies whether the given object is valid and whether it can be restored back to the pool. Returns {@code true}
+     * if the object is valid; otherwise returns {@code false}.
+     *
+     * @param object the object that is to be restored to the pool and that needs to be validated
+     * @param valid if {@code false}, the object is treated as invalid; otherwise a secondary validation on the object
+     *              will be performed
+     * @return see above
+     */
+    private boolean readyToRestore(T object, boolean valid) {
+        try {
+            boolean ready = false;
+            try {
+                ready = valid && createdTotal.get() <= maxSize.get() && poolObjectFactory.readyToRestore(object);
+            } finally {
+                if (!ready) {
+                    destroy(object);
+                }
+            }
+            if (!ready) {
+                createdTotal.decrementAndGet();
+            }
+
+            return ready;
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            recoverInnerState();
+            throw t;
+        }
+    }
+
+    private void recoverInnerState() {
+        createdTotal.decrementAndGet();
+        releasePermit();
+    }
+
+
+    @Override
+    public Listener<T> listener() {
+        return listener;
+    }
+
+    @Override
+    public int taken() {
+        return !isTerminated() ? calculateTaken() : createdTotal();
+    }
+
+    private int calculateTaken() {
+        return maxSize() - takePermits.availablePermits(); // the permits are negative while a shrinking is pending
+    }
+
+    @Override
+    public int remainingCreated() {
+        return !isTerminated() ? createdTotal() - calculateTaken() : 0;
+    }
+
+    @Override
+    public int drainCreated() {
+        return reduceCreatedTo(0, true);
+    }
+
+    @Override
     public String toString() {
         return super.toString() + (!isTerminated() ? "[remainingCreated = " + remainingCreated() + "]" : "[terminated]");
     }
@@ -381,7 +1190,7 @@ public class ConcurrentPool<T> implements PoolService<T> {
 
     @Override
     public int remainingCapacity() {
-        return !isTerminated() ? takeSemaphore.availablePermits() : 0;
+        return !isTerminated() ? Math.max(takePermits.availablePermits(), 0) : 0;
     }
 
     @Override
@@ -389,12 +1198,98 @@ public class ConcurrentPool<T> implements PoolService<T> {
         return initialSize;
     }
 
+    /**
+     * {@inheritDoc} For this pool, the max size can be changed via {@link #setMaxSize}.
+     */
     @Override
     public int maxSize() {
-        return maxSize;
+        return maxSize.get();
+    }
+
+    /**
+     * Changes the max size of this pool. Growing the max size releases the additional take permits right away.
+     * Shrinking it reduces the take permits, and destroys the available objects in excess of the new max size;
+     * if more than the new max size objects are taken at that time, the take operations will wait until enough of
+     * the taken objects have been restored, and the restored objects in excess of the new max size are destroyed.
+     * The {@link #taken()}, {@link #remainingCapacity()} and {@link #createdTotal()} metrics remain consistent with
+     * the new max size, except for the time of the execution of this method.
+     *
+     * <p>Note that the {@link #reduceIdleBy} bookkeeping is sized according to the max size at the time of its first
+     * use, and the objects in excess of it are treated as if they were idle since that time.
+     *
+     * @param maxSize the new max size
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code maxSize < 1 || maxSize < initialSize || maxSize < minIdle}
+     */
+    public void setMaxSize(int maxSize) {
+        forbidIllegalArgument(maxSize < 1 || maxSize < initialSize || maxSize < minIdle || maxSize > MAX_ALLOWED_SIZE,
+                String.format("maxSize %s should be between %s and %s", maxSize,
+                        Math.max(Math.max(initialSize, minIdle), 1), MAX_ALLOWED_SIZE));
+
+        int delta = maxSize - this.maxSize.getAndSet(maxSize); // the concurrent calls apply their own deltas
+        if (delta > 0) {
+            releasePermits(delta);
+        }
+        else if (delta < 0) {
+            takePermits.reducePermits(-delta);
+
+            int surplus;
+            while ((surplus = createdTotal() - this.maxSize.get()) > 0 && reduceCreatedBy(surplus, true) > 0) {
+                // the concurrently restored objects may have been added to the available objects
+            }
+        }
+    }
+
+
+    @Override
+    public int minIdle() {
+        return minIdle;
     }
 
 
+    @Override
+    public int increaseCreatedBy(int increaseBy) {
+        forbidIllegalArgument(increaseBy < 0, String.format("increaseBy %s should be >= 0", increaseBy));
+
+        int cnt;
+        for (cnt = 0; cnt < increaseBy && !isTerminated(); cnt++) {
+            if (!increaseByOne()) {
+                break;
+            }
+        }
+        return cnt;
+    }
+
+    /**
+     * Creates one new object and adds it to the available objects. The creating thread holds a take permit while
+     * creating the object, exactly as a taker would do, which together with the {@code maxSize} check ensures that
+     * neither the background nor the take operations will bring the {@code createdTotal} above {@code maxSize}.
+     */
+    private boolean increaseByOne() {
+        if (!takePermits.tryAcquire()) {
+            return false;
+        }
+        int total;
+        do {
+            total = createdTotal.get();
+            if (total >= maxSize.get()) {
+                releasePermit();
+                return false;
+            }
+        } while (!createdTotal.compareAndSet(total, total + 1));
+
+        try {
+            T object = requireNonNull(poolObjectFactory.create());
+            markIdle(object);
+            available.offerLast(object);
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            recoverInnerState();
+            throw t;
+        }
+        releasePermit();
+        return true;
+    }
+
     @Override
     public int reduceCreatedBy(int reduceBy, boolean ignoreInitialSize) {
 		forbidIllegalArgument(reduceBy < 0, String.format("reduceBy %s should be >= 0", reduceBy));
@@ -431,19 +1326,216 @@ public class ConcurrentPool<T> implements PoolService<T> {
             createdTotal.incrementAndGet();
             return false;
         }
-        poolObjectFactory.destroy(object);
+        destroy(object);
         return true;
     }
 
+    @Override
+    public int reduceIdleBy(int reduceBy, long idleTime, TimeUnit unit, boolean ignoreInitialSize) {
+        forbidIllegalArgument(reduceBy < 0, String.format("reduceBy %s should be >= 0", reduceBy));
+        forbidIllegalArgument(idleTime < 0, String.format("idleTime %s should be >= 0", idleTime));
+
+        IdleTimestamps timestamps = idleTimestamps.get();
+        if (timestamps == null) {
+            idleTimestamps.compareAndSet(null, new IdleTimestamps());
+            timestamps = idleTimestamps.get();
+        }
+        long idleSince = CoarseClock.nanoTime() - unit.toNanos(idleTime);
+
+        int cnt = 0;
+        // holds a permit while inspecting each object, so that the takers cannot bring the createdTotal above maxSize
+        while (cnt < reduceBy && takePermits.tryAcquire()) {
+            try {
+                T object = available.pollLast();
+                if (object == null) {
+                    break;
+                }
+                if (timestamps.idleSince(object) - idleSince > 0) { // the coldest object is not idle long enough
+                    available.offerLast(object);
+                    break;
+                }
+                int newTotal = createdTotal.decrementAndGet();
+                if (!ignoreInitialSize && newTotal < initialSize) {
+                    createdTotal.incrementAndGet();
+                    available.offerLast(object);
+                    break;
+                }
+                destroy(object);
+                cnt++;
+            } finally {
+                releasePermit();
+            }
+        }
+        return cnt;
+    }
+
+    @Override
+    public int validateIdle(int validateBy) {
+        forbidIllegalArgument(validateBy < 0, String.format("validateBy %s should be >= 0", validateBy));
+
+        // the validated objects are held, together with their take permits, until the end of the run, and are
+        // then made available again at the least recently used end, so that no object is validated twice
+        Object[] valid = new Object[Math.max(Math.min(validateBy, remainingCreated()), 0)];
+        int validCnt = 0;
+        int invalid = 0;
+        try {
+            while (validCnt + invalid < valid.length && !isTerminated() && takePermits.tryAcquire()) {
+                T object = available.pollLast();
+                if (object == null) {
+                    releasePermit();
+                    break;
+                }
+                if (validateIdle(object)) {
+                    valid[validCnt++] = object;
+                }
+                else {
+                    createdTotal.decrementAndGet();
+                    releasePermit();
+                    invalid++;
+                }
+            }
+        } finally {
+            for (int i = validCnt - 1; i >= 0; i--) {
+                @SuppressWarnings("unchecked")
+                T object = (T) valid[i];
+                available.offerLast(object);
+                releasePermit();
+            }
+        }
+
+        if (invalid > 0) {
+            increaseCreatedBy(invalid);
+        }
+        return invalid;
+    }
+
+    /**
+     * Validates the given idle object and destroys it if invalid. The calling thread must hold a take permit for
+     * the object, which is released if an exception is thrown.
+     */
+    private boolean validateIdle(T object) {
+        try {
+            boolean ready = false;
+            try {
+                ready = poolObjectFactory.readyToKeepIdle(object);
+            } finally {
+                if (!ready) {
+                    destroy(object);
+                }
+            }
+            return ready;
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            recoverInnerState();
+            throw t;
+        }
+    }
+
+    private void markIdle(T object) {
+        IdleTimestamps timestamps = idleTimestamps.get();
+        if (timestamps != null) {
+            timestamps.markIdle(object);
+        }
+    }
+
+    private void destroy(final T object) {
+        IdleTimestamps timestamps = idleTimestamps.get();
+        if (timestamps != null) {
+            timestamps.remove(object);
+        }
+
+        if (destroyer != null && pendingDestroys.incrementAndGet() <= maxPendingDestroys) {
+            try {
+                destroyer.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            poolObjectFactory.destroy(object);
+                        } finally {
+                            destroyDone();
+                        }
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException ignored) {
+                // destroys the object in the calling thread
+            }
+        }
+        try {
+            poolObjectFactory.destroy(object);
+        } finally {
+            if (destroyer != null) {
+                destroyDone();
+            }
+        }
+    }
+
+    private void destroyDone() {
+        if (pendingDestroys.decrementAndGet() == 0 && isTerminated()) {
+            destroyed.complete(null);
+        }
+    }
+
+    /**
+     * Returns the number of objects which are currently being destroyed or are pending destroying on the
+     * {@code destroyer} executor. These objects are no longer accounted in the {@link #createdTotal()}.
+     *
+     * @return see above
+     */
+    public int pendingDestroys() {
+        return destroyer != null ? pendingDestroys.get() : 0;
+    }
+
+
+    /**
+     * Sets the waiting time of the oldest waiter of a priority level above which the waiters of this level are
+     * served in LIFO order, as described in the class documentation. A threshold of {@code 0} disables the overload
+     * mode, which is the default.
+     *
+     * @param threshold the LIFO threshold
+     * @param unit the time unit of the {@code threshold} argument
+     * @throws IllegalArgumentException if {@code threshold < 0}
+     */
+    public void setLifoThreshold(long threshold, TimeUnit unit) {
+        forbidIllegalArgument(threshold < 0, String.format("threshold %s should be >= 0", threshold));
+        lifoThresholdNanos = unit.toNanos(threshold);
+    }
 
     @Override
     public void terminate() {
         boolean wasTerminated = terminated.getAndSet(true);
 
         drainCreated();
+        failAsyncTakers();
+        leases.remove();
 
         if (!wasTerminated) {
-            takeSemaphore.release(takeSemaphore.getQueueLength() + RESERVED); // best effort to unblock any waiting on the takeSemaphore threads
+            takePermits.release(takePermits.getQueueLength() + RESERVED // best effort to unblock any waiting on the takePermits threads
+                    + Math.max(-takePermits.availablePermits(), 0));
+        }
+        if (pendingDestroys.get() == 0) {
+            destroyed.complete(null);
+        }
+    }
+
+    /**
+     * Waits until this pool is terminated and all of its objects which are pending destroying on the
+     * {@code destroyer} executor have been destroyed, or until the given timeout expires. Note that the objects
+     * which are taken at the time of the termination are destroyed only when restored, and are not waited for.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the {@code timeout} argument
+     * @return {@code true} if the pool is terminated and there are no pending destroys, and {@code false} if
+     * the timeout expired before that
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            destroyed.get(timeout, unit);
+            return true;
+        } catch (TimeoutException ignored) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new AssertionError(e); // never completed exceptionally
         }
     }
 
@@ -460,6 +1552,377 @@ public class ConcurrentPool<T> implements PoolService<T> {
 
     @Override
     public boolean isFair() {
-        return takeSemaphore.isFair();
+        return takePermits.isFair();
+    }
+
+
+    /**
+     * A worker which creates initial objects until all of them have been created or a creation has failed.
+     * The last worker to finish releases the permits of the objects which have not been created together with
+     * the permits in excess of the initial size, and completes the {@link #initialFill} future.
+     */
+    private final class InitialFill implements Runnable {
+        private final int workers;
+        private final int spare = maxSize.get() - initialSize;
+        private final AtomicInteger remaining = new AtomicInteger(initialSize);
+        private final AtomicInteger running;
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicReference<Throwable> thrown = new AtomicReference<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private InitialFill(int workers, boolean async) {
+            this.workers = workers;
+            this.running = new AtomicInteger(async ? workers : workers + 1); // + 1 for the calling thread
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (thrown.get() == null && !isTerminated() && remaining.getAndDecrement() > 0) {
+                    T object = requireNonNull(poolObjectFactory.create());
+                    createdTotal.incrementAndGet();
+                    markIdle(object);
+                    available.offerLast(object);
+                    created.incrementAndGet();
+                    releasePermit();
+                }
+            } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+                fail(t);
+            } finally {
+                finish();
+            }
+        }
+
+        private void fail(Throwable t) {
+            thrown.compareAndSet(null, t);
+        }
+
+        private void finish() {
+            if (running.decrementAndGet() != 0) {
+                return;
+            }
+            int missing = initialSize - created.get() + spare;
+            if (missing > 0) {
+                releasePermits(missing);
+            }
+            Throwable t = thrown.get();
+            if (isTerminated()) {
+                drainCreated();
+            }
+            if (t != null) {
+                initialFill.completeExceptionally(t);
+            }
+            else {
+                initialFill.complete(null);
+                replenishIfNeeded(); // the replenishing is not started before the filling is finished
+            }
+            done.complete(null);
+        }
+    }
+
+    /**
+     * The times at which the available objects have been restored to (or created in) the pool. Each object keeps
+     * its {@link IdentitySlots} slot until it is destroyed; the objects which have no slot, for example, the
+     * objects restored before the recording of the timestamps started, are treated as idle since that start.
+     */
+    private final class IdleTimestamps {
+        private final IdentitySlots<T> slots = new IdentitySlots<>(Math.min(maxSize.get(), MAX_IDLE_TIMESTAMPS));
+        private final AtomicLongArray timestamps = new AtomicLongArray(slots.capacity());
+        private final long startTime = CoarseClock.nanoTime();
+
+        private void markIdle(T object) {
+            int index = slots.indexOf(object);
+            if (index < 0) {
+                index = slots.insert(object);
+            }
+            if (index >= 0) {
+                timestamps.lazySet(index, CoarseClock.nanoTime()); // published by the offer to the available objects
+            }
+        }
+
+        private long idleSince(T object) {
+            int index = slots.indexOf(object);
+            return index >= 0 ? timestamps.get(index) : startTime;
+        }
+
+        private void remove(T object) {
+            slots.remove(object);
+        }
+    }
+
+    /**
+     * A recycled lease. Its stamp is a multiple of 4 while the lease is closed; the {@link #OPEN} bit is set while
+     * the lease is open, and the {@link #INVALID} bit is set if the leased object has been marked invalid. Closing
+     * the lease advances the stamp to the next multiple of 4. The lease is handed out again only by its
+     * {@link #owner} thread, which is the only thread opening it.
+     */
+    private final class PooledLease implements Lease<T> {
+        private static final long OPEN = 1;
+        private static final long INVALID = 2;
+
+        private final Thread owner = Thread.currentThread();
+        private final AtomicLong stamp = new AtomicLong();
+
+        private volatile T object;
+
+        private void open(T object) {
+            this.object = object;
+            stamp.set(stamp.get() + OPEN); // the lease is exclusively owned by the owner thread while closed
+        }
+
+        private boolean isClosed() {
+            return (stamp.get() & OPEN) == 0;
+        }
+
+        @Override
+        public T get() {
+            return get(stamp());
+        }
+
+        @Override
+        public T get(long stamp) {
+            checkOpen(stamp);
+            T object = this.object;
+            checkOpen(stamp); // the lease may have been closed and handed out again while reading the object
+            return object;
+        }
+
+        @Override
+        public void markInvalid() {
+            markInvalid(stamp());
+        }
+
+        @Override
+        public void markInvalid(long stamp) {
+            long current;
+            do {
+                current = checkOpen(stamp);
+            } while ((current & INVALID) == 0 && !this.stamp.compareAndSet(current, current | INVALID));
+        }
+
+        @Override
+        public long stamp() {
+            return stamp.get() & ~INVALID;
+        }
+
+        @Override
+        public void close() {
+            close(stamp());
+        }
+
+        @Override
+        public void close(long stamp) {
+            long current;
+            T object;
+            do {
+                current = this.stamp.get();
+                if ((stamp & OPEN) == 0 || (current & ~INVALID) != stamp) {
+                    return; // already closed
+                }
+                object = this.object; // not changed before the lease is closed
+            } while (!this.stamp.compareAndSet(current, stamp + 3));
+
+            if (Thread.currentThread() == owner) { // otherwise the owner may be opening the lease again
+                this.object = null;
+            }
+            restore(object, (current & INVALID) == 0);
+        }
+
+        private long checkOpen(long stamp) {
+            long current = this.stamp.get();
+            if ((stamp & OPEN) == 0 || (current & ~INVALID) != stamp) {
+                throw new IllegalStateException("Lease is closed");
+            }
+            return current;
+        }
+    }
+
+    /**
+     * The queue of the pending async and prioritized takers, which consists of one FIFO queue per priority level.
+     * The takers are polled in the order of their priority increased by one level for each
+     * {@link #PRIORITY_AGING_MILLIS} of waiting; within a level, they are polled in LIFO order while the oldest
+     * of them has been waiting for longer than the {@link #lifoThresholdNanos}. Until a taker with a priority other
+     * than {@link #NORM_PRIORITY} has been enqueued, only the queue of that priority is used.
+     */
+    private final class AsyncTakers {
+        private final Deque<AsyncTaker>[] levels;
+        private volatile boolean prioritized = false;
+
+        @SuppressWarnings("unchecked")
+        private AsyncTakers() {
+            levels = (Deque<AsyncTaker>[]) new Deque<?>[MAX_PRIORITY + 1];
+            for (int i = 0; i < levels.length; i++) {
+                levels[i] = new ConcurrentLinkedDeque<>();
+            }
+        }
+
+        private boolean isEmpty() {
+            if (!levels[NORM_PRIORITY].isEmpty()) {
+                return false;
+            }
+            if (prioritized) {
+                for (Deque<AsyncTaker> level : levels) {
+                    if (!level.isEmpty()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void add(AsyncTaker taker) {
+            if (taker.priority != NORM_PRIORITY && !prioritized) {
+                prioritized = true;
+            }
+            levels[taker.priority].add(taker);
+        }
+
+        private AsyncTaker poll() {
+            long lifoThreshold = lifoThresholdNanos;
+            if (!prioritized) {
+                return lifoThreshold == 0 ? levels[NORM_PRIORITY].pollFirst()
+                        : poll(levels[NORM_PRIORITY], System.nanoTime(), lifoThreshold);
+            }
+
+            long now = System.nanoTime();
+            int best = -1;
+            long bestPriority = Long.MIN_VALUE;
+            for (int i = MAX_PRIORITY; i >= MIN_PRIORITY; i--) {
+                AsyncTaker head = levels[i].peekFirst();
+                if (head != null) {
+                    long priority = i + (now - head.enqueuedNanos) / PRIORITY_AGING_NANOS;
+                    if (priority > bestPriority) {
+                        best = i;
+                        bestPriority = priority;
+                    }
+                }
+            }
+            if (best >= 0) {
+                AsyncTaker taker = poll(levels[best], now, lifoThreshold);
+                if (taker != null) {
+                    return taker;
+                }
+            }
+            for (int i = MAX_PRIORITY; i >= MIN_PRIORITY; i--) { // the above head has been polled in the meantime
+                AsyncTaker taker = levels[i].pollFirst();
+                if (taker != null) {
+                    return taker;
+                }
+            }
+            return null;
+        }
+
+        private AsyncTaker poll(Deque<AsyncTaker> level, long now, long lifoThreshold) {
+            if (lifoThreshold > 0) {
+                AsyncTaker head = level.peekFirst();
+                if (head != null && now - head.enqueuedNanos > lifoThreshold) {
+                    return level.pollLast();
+                }
+            }
+            return level.pollFirst();
+        }
+
+        private void remove(AsyncTaker taker) {
+            levels[taker.priority].remove(taker);
+        }
+    }
+
+    private final class AsyncTaker extends CompletableFuture<T> implements Runnable {
+        private final int priority;
+        private final long enqueuedNanos;
+        private final boolean timed;
+        private final long deadlineNanos;
+        private volatile ScheduledFuture<?> timeoutTask = null;
+
+        private AsyncTaker() {
+            this(NORM_PRIORITY, false, 0L);
+        }
+
+        private AsyncTaker(int priority, boolean timed, long timeoutNanos) {
+            this.priority = priority;
+            this.enqueuedNanos = System.nanoTime();
+            this.timed = timed;
+            this.deadlineNanos = timed ? enqueuedNanos + timeoutNanos : 0L;
+        }
+
+        /**
+         * Completes this polled taker with {@code null} if its deadline has passed, so that it is
+         * not handed an object which it no longer needs.
+         */
+        private boolean expireIfPastDeadline() {
+            return timed && System.nanoTime() - deadlineNanos >= 0 && complete(null);
+        }
+
+        private void scheduleTimeout(long timeout, TimeUnit unit) {
+            ScheduledFuture<?> task = TimeoutScheduler.INSTANCE.schedule(this, timeout, unit);
+            timeoutTask = task;
+            if (isDone()) { // has been completed in the meantime
+                task.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            expire();
+        }
+
+        private void expire() {
+            if (super.complete(null)) {
+                asyncTakers.remove(this);
+            }
+        }
+
+        @Override
+        public boolean complete(T value) {
+            boolean completed = super.complete(value);
+            if (completed) {
+                cancelTimeout();
+            }
+            return completed;
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable ex) {
+            boolean completed = super.completeExceptionally(ex);
+            if (completed) {
+                cancelTimeout();
+            }
+            return completed;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                cancelTimeout();
+                asyncTakers.remove(this);
+            }
+            return cancelled;
+        }
+
+        private void cancelTimeout() {
+            ScheduledFuture<?> task = timeoutTask;
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * A lazily created scheduler shared by all pools for the expiration of the timed async takers.
+     */
+    private static final class TimeoutScheduler {
+        private static final ScheduledThreadPoolExecutor INSTANCE = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "vibur-object-pool-timeouts");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        static {
+            INSTANCE.setRemoveOnCancelPolicy(true);
+        }
     }
 }
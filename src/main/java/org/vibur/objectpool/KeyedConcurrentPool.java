@@ -0,0 +1,520 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool;
+
+import org.vibur.objectpool.util.ConcurrentLinkedDequeCollection;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A keyed object pool which holds one {@link ConcurrentPool} sub-pool per key, for example, one sub-pool of
+ * connections per host. The sub-pools are created lazily upon the first take operation for their key, with
+ * {@code minPerKey} initial size and {@code maxPerKey} max size, and with objects created by the
+ * {@link PoolObjectFactory} which the supplied {@link KeyedPoolObjectFactory} returns for the key.
+ *
+ * <p>In addition to the per-key limits, this pool enforces a global {@code maxSize} limit on the number of objects
+ * created across all keys. The global limit is accounted only when objects are created or destroyed; hence,
+ * a take of an available object costs the same as a take from a single {@code ConcurrentPool}, plus a hash map
+ * lookup. When an object needs to be created for a key and the global limit is reached, an available (idle)
+ * object of another key is destroyed in order to make room for it. If there are no available objects in the pool,
+ * the taker waits until an object of another key is restored, which is then destroyed in favour of the waiting
+ * taker, or until an object is destroyed. The timeout of the timed take operations applies to the waiting for
+ * a sub-pool permit and for global capacity together.
+ *
+ * <p>This pool implements {@link BasePool}; its metrics are the sums of the metrics of its sub-pools, and its
+ * reduce operations reduce the sub-pools in a round-robin fashion, never below {@code minPerKey} unless the
+ * initial size is ignored. Hence, a single {@link org.vibur.objectpool.util.SamplingPoolReducer} or
+ * {@link org.vibur.objectpool.util.IdlePoolReducer} can reduce all sub-pools. The sub-pool of a key is
+ * accessible via {@link #pool(Object)}; note that the take operations of the sub-pool throw an
+ * {@link IllegalStateException} instead of waiting when the global limit is reached.
+ *
+ * @author agent
+ * @param <K> the type of keys of this keyed object pool
+ * @param <T> the type of objects held in this keyed object pool
+ */
+public class KeyedConcurrentPool<K, T> implements BasePool {
+
+    private static final long CAPACITY_RETRY_NANOS = MILLISECONDS.toNanos(10);
+
+    private final KeyedPoolObjectFactory<K, T> keyedObjectFactory;
+
+    private final int minPerKey;
+    private final int maxPerKey;
+    private final int maxSize;
+    private final boolean fair;
+
+    private final ConcurrentMap<K, ConcurrentPool<T>> pools = new ConcurrentHashMap<>();
+    private final Semaphore capacity;
+    private final CapacityExhaustedException capacityExhausted;
+    private final ThreadLocal<boolean[]> reservedCapacity = new ThreadLocal<boolean[]>() {
+        @Override
+        protected boolean[] initialValue() {
+            return new boolean[1];
+        }
+    };
+
+    private final AtomicBoolean terminated = new AtomicBoolean(false);
+
+    /**
+     * Creates a new {@code KeyedConcurrentPool} with the given {@link KeyedPoolObjectFactory}, per-key
+     * initial and max sizes, global max size, and fairness setting.
+     *
+     * @param keyedObjectFactory the factory which will supply the object factories for the sub-pools
+     * @param minPerKey          the initial size of each sub-pool; the reduce operations will not reduce
+     *                           the sub-pools below this size unless the initial size is ignored
+     * @param maxPerKey          the max size of each sub-pool
+     * @param maxSize            the max number of objects which can be created across all sub-pools
+     * @param fair               the sub-pools fairness setting with regards to waiting threads
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code minPerKey < 0 || maxPerKey < 1 || maxPerKey < minPerKey || maxSize < maxPerKey}
+     * @throws NullPointerException if {@code keyedObjectFactory} is null
+     */
+    public KeyedConcurrentPool(KeyedPoolObjectFactory<K, T> keyedObjectFactory,
+                               int minPerKey, int maxPerKey, int maxSize, boolean fair) {
+        forbidIllegalArgument(minPerKey < 0, String.format("minPerKey %s should be >= 0", minPerKey));
+        forbidIllegalArgument(maxPerKey < 1 || maxPerKey < minPerKey, String.format(
+                "maxPerKey %s should be >= 1 and >= minPerKey %s", maxPerKey, minPerKey));
+        forbidIllegalArgument(maxSize < maxPerKey, String.format("maxSize %s should be >= maxPerKey %s", maxSize, maxPerKey));
+
+        this.keyedObjectFactory = requireNonNull(keyedObjectFactory);
+        this.minPerKey = minPerKey;
+        this.maxPerKey = maxPerKey;
+        this.maxSize = maxSize;
+        this.fair = fair;
+
+        this.capacity = new Semaphore(maxSize, fair);
+        this.capacityExhausted = new CapacityExhaustedException(maxSize);
+    }
+
+    /**
+     * Returns the sub-pool for the given key, creating it if needed.
+     *
+     * @param key the key
+     * @return see above
+     * @throws NullPointerException if {@code key} is null
+     */
+    public PoolService<T> pool(K key) {
+        return subPool(key);
+    }
+
+    /**
+     * Returns the keys for which sub-pools have been created.
+     *
+     * @return an unmodifiable view of the keys
+     */
+    public Set<K> keys() {
+        return Collections.unmodifiableSet(pools.keySet());
+    }
+
+    private ConcurrentPool<T> subPool(K key) {
+        ConcurrentPool<T> pool = pools.get(key);
+        return pool != null ? pool : createSubPool(requireNonNull(key));
+    }
+
+    private ConcurrentPool<T> createSubPool(K key) {
+        // the sub-pool is created and filled at most once per key, and the other takers of the key wait for it
+        ConcurrentPool<T> pool = pools.computeIfAbsent(key, new Function<K, ConcurrentPool<T>>() {
+            @Override
+            public ConcurrentPool<T> apply(K key) {
+                return new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<T>(),
+                        new CapacityFactory(requireNonNull(keyedObjectFactory.forKey(key))),
+                        minPerKey, maxPerKey, fair);
+            }
+        });
+        if (isTerminated()) {
+            pool.terminate();
+        }
+        return pool;
+    }
+
+    /**
+     * Takes an object for the given key, waiting if necessary until an object becomes available, as described in
+     * {@link PoolService#take()}.
+     *
+     * @param key the key
+     * @return an object taken from the sub-pool for the given key or {@code null} if was interrupted while waiting
+     */
+    public T take(K key) {
+        try {
+            return subPool(key).take();
+        } catch (CapacityExhaustedException ignored) {
+            return takeWithCapacity(key, false, 0L);
+        }
+    }
+
+    /**
+     * Takes an object for the given key, waiting up to the specified timeout if necessary for an object to become
+     * available, as described in {@link PoolService#tryTake(long, TimeUnit)}.
+     *
+     * @param key the key
+     * @param timeout the maximum time to wait for an object to become available
+     * @param unit the time unit of the {@code timeout} argument
+     * @return an object taken from the sub-pool for the given key or {@code null} if the specified timeout expires
+     * or if it was interrupted while waiting
+     */
+    public T tryTake(K key, long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            return subPool(key).tryTake(timeout, unit);
+        } catch (CapacityExhaustedException ignored) {
+            return takeWithCapacity(key, true, deadline);
+        }
+    }
+
+    /**
+     * Tries to take an object for the given key without waiting, as described in {@link PoolService#tryTake()}.
+     *
+     * @param key the key
+     * @return an object taken from the sub-pool for the given key or {@code null} if there was no object
+     * available and none could be created
+     */
+    public T tryTake(K key) {
+        try {
+            return subPool(key).tryTake();
+        } catch (CapacityExhaustedException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Waits for global capacity to become available, reserves it for the object which the calling thread may
+     * create, and retries the take. The reservation is released if the take did not need to create an object.
+     */
+    private T takeWithCapacity(K key, boolean timed, long deadline) {
+        boolean[] reserved = reservedCapacity.get();
+        for (;;) {
+            long remaining = timed ? deadline - System.nanoTime() : CAPACITY_RETRY_NANOS;
+            if (remaining <= 0 || isTerminated()) {
+                return null;
+            }
+
+            evictIdle();
+            try {
+                if (!capacity.tryAcquire(Math.min(remaining, CAPACITY_RETRY_NANOS), NANOSECONDS)) {
+                    continue;
+                }
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt(); // ignore and reset
+                return null;
+            }
+
+            reserved[0] = true;
+            try {
+                long timeout = timed ? Math.max(deadline - System.nanoTime(), 0L) : CAPACITY_RETRY_NANOS;
+                T object = subPool(key).tryTake(timeout, NANOSECONDS);
+                if (object != null || timed || Thread.currentThread().isInterrupted()) {
+                    return object;
+                }
+            } catch (CapacityExhaustedException ignored) {
+                // the reserved capacity was not enough for the creation of the sub-pool initial objects
+            } finally {
+                if (reserved[0]) {
+                    reserved[0] = false;
+                    capacity.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores the given object to the sub-pool for the given key, as described in {@link PoolService#restore}.
+     *
+     * @param key the key for which the object was taken
+     * @param object an object to be restored (returned) to this pool
+     */
+    public void restore(K key, T object) {
+        restore(key, object, true);
+    }
+
+    /**
+     * Restores the given object to the sub-pool for the given key, as described in
+     * {@link PoolService#restore(Object, boolean)}. If there are takers of other keys waiting for global capacity,
+     * an available object of this sub-pool is destroyed in order to make room for them.
+     *
+     * @param key the key for which the object was taken
+     * @param object an object to be restored (returned) to this pool
+     * @param valid if {@code false}, the object is treated as invalid and will be destroyed
+     */
+    public void restore(K key, T object, boolean valid) {
+        ConcurrentPool<T> pool = pools.get(key);
+        if (pool == null) { // avoids the formatting of the message on the hot path
+            forbidIllegalArgument(true, String.format("no sub-pool exists for key %s", key));
+        }
+        pool.restore(object, valid);
+
+        if (capacity.hasQueuedThreads() && pool.remainingCreated() > 0) {
+            pool.reduceCreatedBy(1, false);
+        }
+    }
+
+    private boolean evictIdle() {
+        for (ConcurrentPool<T> pool : pools.values()) {
+            if (pool.remainingCreated() > 0 && pool.reduceCreatedBy(1, false) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    @Override
+    public int taken() {
+        int taken = 0;
+        for (ConcurrentPool<T> pool : pools.values()) {
+            taken += pool.taken();
+        }
+        return taken;
+    }
+
+    @Override
+    public int remainingCreated() {
+        int remainingCreated = 0;
+        for (ConcurrentPool<T> pool : pools.values()) {
+            remainingCreated += pool.remainingCreated();
+        }
+        return remainingCreated;
+    }
+
+    @Override
+    public int createdTotal() {
+        int createdTotal = 0;
+        for (ConcurrentPool<T> pool : pools.values()) {
+            createdTotal += pool.createdTotal();
+        }
+        return createdTotal;
+    }
+
+    /**
+     * {@inheritDoc} For this keyed pool, this is the global {@code maxSize} minus the taken objects;
+     * the take operations for a particular key are further limited by {@code maxPerKey}.
+     */
+    @Override
+    public int remainingCapacity() {
+        return !isTerminated() ? Math.max(maxSize - taken(), 0) : 0;
+    }
+
+    /**
+     * {@inheritDoc} For this keyed pool, this is {@code minPerKey} times the number of created sub-pools.
+     */
+    @Override
+    public int initialSize() {
+        return minPerKey * pools.size();
+    }
+
+    @Override
+    public int maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int minIdle() {
+        return 0;
+    }
+
+    /**
+     * Returns the max size of each sub-pool.
+     *
+     * @return see above
+     */
+    public int maxPerKey() {
+        return maxPerKey;
+    }
+
+
+    @Override
+    public int increaseCreatedBy(int increaseBy) {
+        forbidIllegalArgument(increaseBy < 0, String.format("increaseBy %s should be >= 0", increaseBy));
+        return new RoundRobin<ConcurrentPool<T>>() {
+            @Override
+            boolean applyOnce(ConcurrentPool<T> pool) {
+                try {
+                    return pool.increaseCreatedBy(1) == 1;
+                } catch (CapacityExhaustedException ignored) {
+                    return false;
+                }
+            }
+        }.apply(pools.values(), increaseBy);
+    }
+
+    @Override
+    public int reduceCreatedBy(int reduceBy, final boolean ignoreInitialSize) {
+        forbidIllegalArgument(reduceBy < 0, String.format("reduceBy %s should be >= 0", reduceBy));
+        return new RoundRobin<ConcurrentPool<T>>() {
+            @Override
+            boolean applyOnce(ConcurrentPool<T> pool) {
+                return pool.reduceCreatedBy(1, ignoreInitialSize) == 1;
+            }
+        }.apply(pools.values(), reduceBy);
+    }
+
+    @Override
+    public int reduceCreatedTo(int reduceTo, boolean ignoreInitialSize) {
+        forbidIllegalArgument(reduceTo < 0, String.format("reduceTo %s should be >= 0", reduceTo));
+        return reduceCreatedBy(Math.max(createdTotal() - reduceTo, 0), ignoreInitialSize);
+    }
+
+    @Override
+    public int reduceIdleBy(int reduceBy, final long idleTime, final TimeUnit unit, final boolean ignoreInitialSize) {
+        forbidIllegalArgument(reduceBy < 0, String.format("reduceBy %s should be >= 0", reduceBy));
+        forbidIllegalArgument(idleTime < 0, String.format("idleTime %s should be >= 0", idleTime));
+        for (ConcurrentPool<T> pool : pools.values()) {
+            pool.reduceIdleBy(0, idleTime, unit, ignoreInitialSize); // starts the recording of the idle times
+        }
+        return new RoundRobin<ConcurrentPool<T>>() {
+            @Override
+            boolean applyOnce(ConcurrentPool<T> pool) {
+                return pool.reduceIdleBy(1, idleTime, unit, ignoreInitialSize) == 1;
+            }
+        }.apply(pools.values(), reduceBy);
+    }
+
+    @Override
+    public int validateIdle(int validateBy) {
+        forbidIllegalArgument(validateBy < 0, String.format("validateBy %s should be >= 0", validateBy));
+        int invalid = 0;
+        int pools = this.pools.size();
+        for (ConcurrentPool<T> pool : this.pools.values()) {
+            try {
+                invalid += pool.validateIdle((validateBy + pools - 1) / pools);
+            } catch (CapacityExhaustedException ignored) {
+                // the invalid objects of this sub-pool could not be replaced
+            }
+        }
+        return invalid;
+    }
+
+    @Override
+    public int drainCreated() {
+        int drained = 0;
+        for (ConcurrentPool<T> pool : pools.values()) {
+            drained += pool.drainCreated();
+        }
+        return drained;
+    }
+
+
+    @Override
+    public void terminate() {
+        terminated.set(true);
+        for (ConcurrentPool<T> pool : pools.values()) {
+            pool.terminate();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.get();
+    }
+
+    @Override
+    public void close() {
+        terminate();
+    }
+
+
+    /**
+     * Decorates the object factory of a sub-pool, so that each created object holds one permit of the global
+     * capacity until it is destroyed.
+     */
+    private final class CapacityFactory implements PoolObjectFactory<T> {
+        private final PoolObjectFactory<T> poolObjectFactory;
+
+        private CapacityFactory(PoolObjectFactory<T> poolObjectFactory) {
+            this.poolObjectFactory = poolObjectFactory;
+        }
+
+        @Override
+        public T create() {
+            acquireCapacity();
+            T object = null;
+            try {
+                object = poolObjectFactory.create();
+                return object;
+            } finally {
+                if (object == null) {
+                    capacity.release();
+                }
+            }
+        }
+
+        private void acquireCapacity() {
+            boolean[] reserved = reservedCapacity.get();
+            if (reserved[0]) {
+                reserved[0] = false;
+                return;
+            }
+            if (capacity.tryAcquire() || (evictIdle() && capacity.tryAcquire())) {
+                return;
+            }
+            throw capacityExhausted;
+        }
+
+        @Override
+        public boolean readyToTake(T obj) {
+            return poolObjectFactory.readyToTake(obj);
+        }
+
+        @Override
+        public boolean readyToRestore(T obj) {
+            return poolObjectFactory.readyToRestore(obj);
+        }
+
+        @Override
+        public boolean readyToKeepIdle(T obj) {
+            return poolObjectFactory.readyToKeepIdle(obj);
+        }
+
+        @Override
+        public void destroy(T obj) {
+            try {
+                poolObjectFactory.destroy(obj);
+            } finally {
+                capacity.release();
+            }
+        }
+    }
+
+    /**
+     * Thrown by the sub-pools take operations when an object needs to be created, but the global {@code maxSize}
+     * has been reached. A single preallocated instance without a stack trace is thrown by each pool.
+     */
+    private static final class CapacityExhaustedException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        private CapacityExhaustedException(int maxSize) {
+            super(String.format("KeyedConcurrentPool maxSize %s has been reached", maxSize));
+            setStackTrace(new StackTraceElement[0]);
+        }
+
+        @Override
+        public Throwable fillInStackTrace() {
+            return this; // preallocated, the stack trace is meaningless
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool;
+
+/**
+ * Defines the interface that will be implemented by the factory used by the {@link KeyedConcurrentPool}, in order
+ * to supply the {@link PoolObjectFactory} of the objects pooled for each key.
+ *
+ * @author agent
+ * @param <K> the type of keys of the client keyed object pool
+ * @param <T> the type of objects held in the client keyed object pool
+ */
+public interface KeyedPoolObjectFactory<K, T> {
+
+    /**
+     * Returns the factory which will be used to create and control the lifecycle of the objects pooled for
+     * the given key. This method is called when the sub-pool for the given key is lazily created, and
+     * should <b>never</b> return {@code null}.
+     *
+     * @param key the key of the sub-pool
+     * @return the object factory for the given key
+     */
+    PoolObjectFactory<T> forKey(K key);
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool;
+
+/**
+ * A handle to an object taken from the object pool via {@link PoolService#takeLease()} or
+ * {@link PoolService#tryTakeLease}, which restores the object to the pool when closed, and which is intended
+ * for use in a try-with-resources statement:
+ * <pre>
+ * try (Lease&lt;T&gt; lease = pool.takeLease()) {
+ *     T object = lease.get();
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>The lease instances are recycled by the pool, and a closed lease may be handed out again to a subsequent
+ * borrower. Each hand out and each close advances the lease generation {@link #stamp()}; a lease is closed at most
+ * once per generation. The methods which do not take a stamp operate on the current generation of the lease, and
+ * are meant to be used only within the scope of the borrowing, as in the try-with-resources statement above.
+ * A borrower which keeps a reference to the lease beyond this scope, or which may otherwise call the lease after
+ * closing it, should capture the stamp when taking the lease and use the {@link #get(long)},
+ * {@link #markInvalid(long)} and {@link #close(long)} methods instead:
+ * <pre>
+ * Lease&lt;T&gt; lease = pool.takeLease();
+ * long stamp = lease.stamp();
+ * T object = lease.get(stamp);
+ * ...
+ * lease.close(stamp);
+ * </pre>
+ * Once the lease has been closed, these methods detect the stale stamp even if the lease has been handed out again
+ * to another borrower; the stale {@code get} and {@code markInvalid} calls throw an exception, and the stale
+ * {@code close} calls are ignored. Hence, a repeated {@code close} can never restore an object to the pool twice
+ * and corrupt the pool accounting, nor restore the object of another borrower.
+ *
+ * @author agent
+ * @param <T> the type of objects held in the object pool
+ */
+public interface Lease<T> extends AutoCloseable {
+
+    /**
+     * Returns the leased object of the current generation of this lease.
+     *
+     * @return the leased object
+     * @throws IllegalStateException if this lease is closed
+     */
+    T get();
+
+    /**
+     * Returns the leased object, provided that the lease is still open in the generation of the given stamp.
+     *
+     * @param stamp the stamp of this lease as returned by {@link #stamp()} when the lease was taken
+     * @return the leased object
+     * @throws IllegalStateException if the lease generation of the given stamp is closed
+     */
+    T get(long stamp);
+
+    /**
+     * Marks the leased object of the current generation of this lease as invalid; the object will be destroyed
+     * instead of restored to the pool when the lease is closed.
+     *
+     * @throws IllegalStateException if this lease is closed
+     */
+    void markInvalid();
+
+    /**
+     * Marks the leased object as invalid, provided that the lease is still open in the generation of the given
+     * stamp; the object will be destroyed instead of restored to the pool when the lease is closed.
+     *
+     * @param stamp the stamp of this lease as returned by {@link #stamp()} when the lease was taken
+     * @throws IllegalStateException if the lease generation of the given stamp is closed
+     */
+    void markInvalid(long stamp);
+
+    /**
+     * Returns the generation stamp of this lease, which changes every time the lease is handed out and every time
+     * it is closed, and which is odd while the lease is open. Marking the leased object invalid does not change
+     * the stamp.
+     *
+     * @return see above
+     */
+    long stamp();
+
+    /**
+     * Closes the current generation of this lease, and restores the leased object to the object pool, as if via
+     * {@link PoolService#restore(Object, boolean)}, unless the object has been marked invalid. Does nothing if
+     * the lease is already closed.
+     */
+    @Override
+    void close();
+
+    /**
+     * Closes this lease and restores the leased object to the object pool as described in {@link #close()},
+     * provided that the lease is still open in the generation of the given stamp. Does nothing otherwise, i.e.
+     * if the lease generation of the given stamp is already closed, even if the lease has been handed out again.
+     *
+     * @param stamp the stamp of this lease as returned by {@link #stamp()} when the lease was taken
+     */
+    void close(long stamp);
+}
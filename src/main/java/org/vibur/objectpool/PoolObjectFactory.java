@@ -71,10 +71,25 @@ public interface PoolObjectFactory<T> {
      */
     boolean readyToRestore(T obj);
 
+    /**
+     * A validation hook which will be called by the {@link BasePool#validateIdle} operation of
+     * {@link ConcurrentPool} for the objects which are idle in the object pool, typically from a background
+     * thread. The objects for which it returns {@code false} are destroyed and replaced with new objects
+     * created by the calling thread.
+     *
+     * <p>The default implementation returns the result of {@link #readyToTake}.
+     *
+     * @param obj an object which is idle in the object pool
+     * @return {@code true} if the validation is successful, {@code false} otherwise
+     */
+    default boolean readyToKeepIdle(T obj) {
+        return readyToTake(obj);
+    }
+
     /**
      * A method which will be called when an object from the object pool needs to be destroyed,
-     * which is when the {@link #readyToTake} or {@link #readyToRestore} methods have returned
-     * {@code false}, or when the pool is shrinking its size (via calling {@code reduceCreatedBy/To}),
+     * which is when the {@link #readyToTake}, {@link #readyToRestore} or {@link #readyToKeepIdle} methods
+     * have returned {@code false}, or when the pool is shrinking its size (via calling {@code reduceCreatedBy/To}),
      * or when the pool is terminating. The simplest implementation of this method may simply
      * do nothing, however if there are any allocated resources associated with the to-be-destroyed
      * object, like network connections or similar, this is the ideal place where they can be
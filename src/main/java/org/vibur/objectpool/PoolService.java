@@ -20,6 +20,10 @@ import org.vibur.objectpool.util.Listener;
 
 import java.util.concurrent.TimeUnit;
 
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
 /**
  * Defines the object pool operations. These operations include the {@code take} and {@code restore} pool
  * methods.
@@ -120,6 +124,87 @@ public interface PoolService<T> extends BasePool {
      */
     T tryTake();
 
+    /**
+     * Tries to take up to {@code n} objects from the object pool and stores them at the beginning of the
+     * {@code objects} array. This is a blocking call that waits up to the specified {@code timeout} for all
+     * {@code n} objects to become available; if the timeout expires, it takes as many objects as are immediately
+     * available at that time. The objects may need to be created as described in
+     * {@link #tryTake(long, TimeUnit, long[])}. If the calling thread is interrupted while waiting this call will
+     * return {@code 0} and the thread's interrupted status will be set to {@code true}.
+     *
+     * <p>If an exception is thrown while taking (creating or validating) one of the objects, all objects already
+     * taken by this call are restored to the pool before the exception is rethrown.
+     *
+     * <p>The default implementation takes the objects one by one via {@link #tryTake(long, TimeUnit)}, waiting
+     * for each of them up to the remainder of the {@code timeout}; the implementing classes may override it
+     * if they can take the objects in a batch.
+     *
+     * @param objects the array in which the taken objects will be stored
+     * @param n the number of objects to be taken
+     * @param timeout the maximum time to wait for the objects to become available in the object pool;
+     *                this timeout does not include the objects creation time
+     * @param unit the time unit of the {@code timeout} argument
+     * @return the number of objects taken, stored at indexes {@code 0} to {@code n - 1} of the {@code objects} array
+     * @throws IllegalArgumentException if {@code n < 0 || n > objects.length}
+     */
+    default int takeMany(T[] objects, int n, long timeout, TimeUnit unit) {
+        if (n < 0 || n > objects.length) { // avoids the formatting of the message on the hot path
+            forbidIllegalArgument(true, String.format("n %s should be between 0 and %s", n, objects.length));
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int taken = 0;
+        try {
+            T object;
+            while (taken < n
+                    && (object = tryTake(Math.max(deadline - System.nanoTime(), 0L), NANOSECONDS)) != null) {
+                objects[taken++] = object;
+            }
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            restoreAll(objects, taken, true);
+            throw t;
+        }
+
+        if (taken < n && Thread.currentThread().isInterrupted()) {
+            restoreAll(objects, taken, true);
+            return 0;
+        }
+        return taken;
+    }
+
+    /**
+     * Takes an object from the object pool as described in {@link #take()}, and returns a {@link Lease} of it
+     * which restores the object to the pool when closed. The object pool implementation may recycle the lease
+     * instances so that this operation does not allocate in the steady state.
+     *
+     * <p>The default implementation creates a new (non-recycled) lease for every taken object; the implementing
+     * classes may override it in order to recycle the leases.
+     *
+     * @return a lease of the object taken from the object pool or {@code null} if it was interrupted while waiting
+     */
+    default Lease<T> takeLease() {
+        T object = take();
+        return object != null ? new SimpleLease<>(this, object) : null;
+    }
+
+    /**
+     * Tries to take an object from the object pool as described in {@link #tryTake(long, TimeUnit)}, and returns
+     * a {@link Lease} of it which restores the object to the pool when closed.
+     *
+     * <p>The default implementation creates a new (non-recycled) lease for every taken object; the implementing
+     * classes may override it in order to recycle the leases.
+     *
+     * @param timeout the maximum time to wait for an object to become available in the object pool;
+     *                this timeout does not include the object creation time
+     * @param unit the time unit of the {@code timeout} argument
+     * @return a lease of the object taken from the object pool or {@code null} if the specified timeout expires
+     * or if it was interrupted while waiting
+     */
+    default Lease<T> tryTakeLease(long timeout, TimeUnit unit) {
+        T object = tryTake(timeout, unit);
+        return object != null ? new SimpleLease<>(this, object) : null;
+    }
+
     /**
      * Restores (returns) an object to the object pool. The object pool does <b>not</b>
      * verify whether the currently restored object has been taken before that from this object pool
@@ -143,6 +228,55 @@ public interface PoolService<T> extends BasePool {
      */
     void restore(T object, boolean valid);
 
+    /**
+     * Restores (returns) the first {@code n} objects from the given array to the object pool, as if
+     * {@link #restore(Object, boolean) restore(object, valid)} was called for each of them. The object pool does
+     * <b>not</b> verify whether the currently restored objects have been taken before that from this object pool
+     * or whether they are currently in taken state. The array elements at indexes {@code 0} to {@code n - 1} are
+     * set to {@code null} by this call.
+     *
+     * <p>If an exception is thrown while restoring one of the objects, the remaining objects are still restored
+     * and the first thrown exception is rethrown at the end.
+     *
+     * <p>The default implementation restores the objects one by one via {@link #restore(Object, boolean)};
+     * the implementing classes may override it if they can restore the objects in a batch.
+     *
+     * @param objects the objects to be restored / returned
+     * @param n the number of objects to be restored
+     * @param valid if {@code false}, the objects are treated as invalid; otherwise a secondary validation on each
+     *              of the objects will be performed
+     * @throws IllegalArgumentException if {@code n < 0 || n > objects.length}
+     * @throws NullPointerException if any of the objects to be restored is {@code null}
+     */
+    default void restoreAll(T[] objects, int n, boolean valid) {
+        if (n < 0 || n > objects.length) { // avoids the formatting of the message on the hot path
+            forbidIllegalArgument(true, String.format("n %s should be between 0 and %s", n, objects.length));
+        }
+        for (int i = 0; i < n; i++) {
+            requireNonNull(objects[i]);
+        }
+
+        Throwable thrown = null;
+        for (int i = 0; i < n; i++) {
+            T object = objects[i];
+            objects[i] = null;
+            try {
+                restore(object, valid);
+            } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+                if (thrown == null) {
+                    thrown = t;
+                }
+            }
+        }
+
+        if (thrown instanceof Error) {
+            throw (Error) thrown;
+        }
+        if (thrown != null) {
+            throw (RuntimeException) thrown; // restore() does not throw checked exceptions
+        }
+    }
+
 
     /**
      * Returns the {@link Listener} interface instance associated with this object pool, if any.
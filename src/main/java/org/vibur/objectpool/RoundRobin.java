@@ -0,0 +1,61 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool;
+
+/**
+ * Applies an operation once to each of a number of pools in turn, until it has been successfully applied the given
+ * number of times, or until it has failed for all pools. Used by the pools composed of other pools in order to
+ * spread their increase and reduce operations evenly across the constituent pools.
+ *
+ * @author agent
+ * @param <P> the type of the constituent pools
+ */
+abstract class RoundRobin<P extends BasePool> {
+
+    /**
+     * Applies the operation once to the given pool.
+     *
+     * @param pool the pool
+     * @return {@code true} if the operation succeeded
+     */
+    abstract boolean applyOnce(P pool);
+
+    /**
+     * Applies the operation to the given pools in turn, up to the given number of times.
+     *
+     * @param pools the pools
+     * @param times the number of successful applications wanted
+     * @return the number of successful applications
+     */
+    int apply(Iterable<P> pools, int times) {
+        int applied = 0;
+        boolean progress = true;
+        while (applied < times && progress) {
+            progress = false;
+            for (P pool : pools) {
+                if (applied == times) {
+                    break;
+                }
+                if (applyOnce(pool)) {
+                    applied++;
+                    progress = true;
+                }
+            }
+        }
+        return applied;
+    }
+}
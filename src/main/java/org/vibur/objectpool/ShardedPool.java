@@ -0,0 +1,625 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool;
+
+import org.vibur.objectpool.util.ConcurrentLinkedDequeCollection;
+import org.vibur.objectpool.util.IdentitySlots;
+import org.vibur.objectpool.util.Listener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * An object pool which consists of a number of independent {@link ConcurrentPool} shards, each of them holding
+ * an equal part of the pool capacity, with its own take permits and collection of available objects. The calling
+ * threads are assigned to a home shard based on a hash of their thread id, which spreads the take and restore
+ * operations of different threads across the shards instead of having all of them contend on a single semaphore
+ * and a single collection.
+ *
+ * <p>The take operations try the home shard first, and if it has no available object steal one from the other
+ * shards without waiting; a new object is created, in the first shard with spare capacity, only if no shard has
+ * an available object. Only then the taker parks in a FIFO waiters queue common to all shards; every restore to any
+ * of the shards wakes up the first waiter, which retries the stealing from all shards. If the pool is fair, a taker
+ * which finds other takers already waiting joins the waiters queue right away, and only the first waiter may
+ * steal, hence, the objects are handed to the waiters in the order of their arrival, regardless of the shard to
+ * which the objects are restored. If the pool is not fair, the new takers may barge in ahead of the waiters.
+ * The non-timed {@link #tryTake()} always barges in. The restore operations return the objects to the shards which
+ * created them, which are found via an {@link IdentitySlots} lookup of the object.
+ *
+ * <p>The metrics of this pool are the sums of the metrics of its shards, computed on each call at a cost which is
+ * linear in the number of shards; they are meant for monitoring rather than for the hot path of the calling
+ * application. The increase and reduce operations of this pool are spread evenly across the shards. The time waited reported by the take operations which accept a
+ * {@code waitedNanos} parameter includes the time for stealing from the other shards.
+ *
+ * @author agent
+ * @param <T> the type of objects held in this object pool
+ */
+public class ShardedPool<T> implements PoolService<T> {
+
+    private final ConcurrentPool<T>[] shards;
+    private final List<ConcurrentPool<T>> shardList;
+    private final int initialSize;
+    private final int maxSize;
+    private final boolean fair;
+    private final Listener<T> listener;
+
+    private final IdentitySlots<T> objects;
+    private final AtomicIntegerArray objectShards;
+
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    private final Taker<T> objectTaker = new Taker<T>() {
+        @Override
+        T take(ConcurrentPool<T> shard, boolean create) {
+            return create ? shard.tryTake() : shard.tryTakeAvailable();
+        }
+    };
+    private final Taker<Lease<T>> leaseTaker = new Taker<Lease<T>>() {
+        @Override
+        Lease<T> take(ConcurrentPool<T> shard, boolean create) {
+            return create ? shard.tryTakeLease(0L, NANOSECONDS) : shard.tryTakeAvailableLease();
+        }
+    };
+
+    /**
+     * Creates a new {@code ShardedPool} with the given {@link PoolObjectFactory}, initial and max sizes,
+     * and fairness setting, and with a number of shards equal to the number of available processors,
+     * bounded by {@code maxSize}.
+     *
+     * @param poolObjectFactory the factory which will be used to create new objects
+     *                          in this object pool as well as to control their lifecycle
+     * @param initialSize       the object pool initial size, split across the shards
+     * @param maxSize           the object pool max size, split across the shards
+     * @param fair              the shards fairness setting with regards to waiting threads
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code initialSize < 0 || maxSize < 1 || maxSize < initialSize}
+     * @throws NullPointerException if {@code poolObjectFactory} is null
+     */
+    public ShardedPool(PoolObjectFactory<T> poolObjectFactory, int initialSize, int maxSize, boolean fair) {
+        this(poolObjectFactory, initialSize, maxSize,
+                Math.max(Math.min(Runtime.getRuntime().availableProcessors(), maxSize), 1), fair, null);
+    }
+
+    /**
+     * Creates a new {@code ShardedPool} with the given {@link PoolObjectFactory}, initial and max sizes,
+     * number of shards, fairness setting, and listener.
+     *
+     * @param poolObjectFactory the factory which will be used to create new objects
+     *                          in this object pool as well as to control their lifecycle
+     * @param initialSize       the object pool initial size, split across the shards
+     * @param maxSize           the object pool max size, split across the shards
+     * @param shards            the number of shards
+     * @param fair              the shards fairness setting with regards to waiting threads
+     * @param listener          if not {@code null}, this listener instance methods will be called
+     *                          when the shards execute {@code take} or {@code restore} operations
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code initialSize < 0 || maxSize < 1 || maxSize < initialSize || shards < 1 || shards > maxSize}
+     * @throws NullPointerException if {@code poolObjectFactory} is null
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedPool(PoolObjectFactory<T> poolObjectFactory, int initialSize, int maxSize, int shards,
+                       boolean fair, Listener<T> listener) {
+        forbidIllegalArgument(initialSize < 0, String.format("initialSize %s should be >= 0", initialSize));
+        forbidIllegalArgument(maxSize < 1 || maxSize < initialSize, String.format(
+                "maxSize %s should be >= 1 and >= initialSize %s", maxSize, initialSize));
+        forbidIllegalArgument(shards < 1 || shards > maxSize, String.format(
+                "shards %s should be >= 1 and <= maxSize %s", shards, maxSize));
+        requireNonNull(poolObjectFactory);
+
+        this.initialSize = initialSize;
+        this.maxSize = maxSize;
+        this.fair = fair;
+        this.listener = listener;
+
+        this.objects = new IdentitySlots<>(maxSize);
+        this.objectShards = new AtomicIntegerArray(objects.capacity());
+
+        this.shards = (ConcurrentPool<T>[]) new ConcurrentPool<?>[shards];
+        try {
+            for (int i = 0; i < shards; i++) {
+                this.shards[i] = new Shard(new ShardObjectFactory(poolObjectFactory, i),
+                        part(initialSize, shards, i), part(maxSize, shards, i), fair, listener);
+            }
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            for (ConcurrentPool<T> shard : this.shards) {
+                if (shard != null) {
+                    shard.terminate();
+                }
+            }
+            throw t;
+        }
+        this.shardList = Arrays.asList(this.shards);
+    }
+
+    /** Returns the part of the given total which falls to the given shard. */
+    private static int part(int total, int shards, int shard) {
+        return total / shards + (shard < total % shards ? 1 : 0);
+    }
+
+    /**
+     * Returns the number of shards of this pool.
+     *
+     * @return see above
+     */
+    public int shards() {
+        return shards.length;
+    }
+
+    private int homeIndex() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9; // Fibonacci hashing spreads the sequential thread ids
+        return ((h ^ (h >>> 16)) & 0x7FFFFFFF) % shards.length;
+    }
+
+
+    @Override
+    public T take() {
+        return take(objectTaker, false, 0L, true);
+    }
+
+    @Override
+    public T take(long[] waitedNanos) {
+        long startTime = System.nanoTime();
+        try {
+            return take();
+        } finally {
+            waitedNanos[0] = System.nanoTime() - startTime;
+        }
+    }
+
+    @Override
+    public T takeUninterruptibly() {
+        return take(objectTaker, false, 0L, false);
+    }
+
+    @Override
+    public T takeUninterruptibly(long[] waitedNanos) {
+        long startTime = System.nanoTime();
+        try {
+            return takeUninterruptibly();
+        } finally {
+            waitedNanos[0] = System.nanoTime() - startTime;
+        }
+    }
+
+    @Override
+    public T tryTake(long timeout, TimeUnit unit) {
+        return take(objectTaker, true, unit.toNanos(timeout), true);
+    }
+
+    @Override
+    public T tryTake(long timeout, TimeUnit unit, long[] waitedNanos) {
+        long startTime = System.nanoTime();
+        try {
+            return tryTake(timeout, unit);
+        } finally {
+            waitedNanos[0] = System.nanoTime() - startTime;
+        }
+    }
+
+    @Override
+    public T tryTake() {
+        return steal(objectTaker, homeIndex());
+    }
+
+    @Override
+    public int takeMany(T[] objects, int n, long timeout, TimeUnit unit) {
+        if (n < 0 || n > objects.length) { // avoids the formatting of the message on the hot path
+            forbidIllegalArgument(true, String.format("n %s should be between 0 and %s", n, objects.length));
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int taken = 0;
+        try {
+            while (taken < n) {
+                T object = take(objectTaker, true, deadline - System.nanoTime(), true);
+                if (object == null) {
+                    break;
+                }
+                objects[taken++] = object;
+            }
+            while (taken < n) { // the timeout has expired, takes the immediately available objects
+                T object = tryTake();
+                if (object == null) {
+                    break;
+                }
+                objects[taken++] = object;
+            }
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            restoreAll(objects, taken, true);
+            throw t;
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+            restoreAll(objects, taken, true);
+            return 0;
+        }
+        return taken;
+    }
+
+    @Override
+    public Lease<T> takeLease() {
+        return take(leaseTaker, false, 0L, true);
+    }
+
+    @Override
+    public Lease<T> tryTakeLease(long timeout, TimeUnit unit) {
+        return take(leaseTaker, true, unit.toNanos(timeout), true);
+    }
+
+    /**
+     * Takes from the home shard or steals from the other shards without waiting, and if that fails, waits in
+     * the waiters queue until an object is restored to any of the shards.
+     */
+    private <R> R take(Taker<R> taker, boolean timed, long nanos, boolean interruptible) {
+        int home = homeIndex();
+        if (!fair || waiters.isEmpty()) {
+            R result = steal(taker, home);
+            if (result != null) {
+                return result;
+            }
+        }
+        if (timed && nanos <= 0) {
+            return null;
+        }
+
+        Thread current = Thread.currentThread();
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        boolean interrupted = false;
+        waiters.add(current);
+        try {
+            for (;;) {
+                if (!fair || waiters.peek() == current) {
+                    R result = steal(taker, home);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                if (isTerminated()) {
+                    return null;
+                }
+
+                if (timed) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                } else {
+                    LockSupport.park(this);
+                }
+                if (Thread.interrupted()) {
+                    interrupted = true;
+                    if (interruptible) {
+                        return null;
+                    }
+                }
+            }
+        } finally {
+            waiters.remove(current);
+            wakeUpWaiter(); // passes on the wake up which this waiter may have consumed
+            if (interrupted) {
+                current.interrupt();
+            }
+        }
+    }
+
+    private void wakeUpWaiter() {
+        Thread waiter = waiters.peek();
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Takes an available object from the home shard or from the other shards, and only if there is none, creates
+     * a new object in the first shard which has spare capacity, so that the skewed assignment of the threads to
+     * the home shards does not grow the pool while objects are idle in the other shards.
+     */
+    private <R> R steal(Taker<R> taker, int home) {
+        R result = steal(taker, home, false);
+        return result != null ? result : steal(taker, home, true);
+    }
+
+    private <R> R steal(Taker<R> taker, int home, boolean create) {
+        for (int i = 0; i < shards.length; i++) {
+            int index = home + i;
+            R result = taker.take(shards[index < shards.length ? index : index - shards.length], create);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+
+    @Override
+    public void restore(T object) {
+        restore(object, true);
+    }
+
+    @Override
+    public void restore(T object, boolean valid) {
+        shardOf(requireNonNull(object)).restore(object, valid);
+    }
+
+    @Override
+    public void restoreAll(T[] objects, int n, boolean valid) {
+        if (n < 0 || n > objects.length) { // avoids the formatting of the message on the hot path
+            forbidIllegalArgument(true, String.format("n %s should be between 0 and %s", n, objects.length));
+        }
+
+        Throwable thrown = null;
+        for (int i = 0; i < n; i++) {
+            T object = objects[i];
+            objects[i] = null;
+            try {
+                restore(object, valid);
+            } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+                if (thrown == null) {
+                    thrown = t;
+                }
+            }
+        }
+        if (thrown instanceof RuntimeException) {
+            throw (RuntimeException) thrown;
+        }
+        if (thrown != null) {
+            throw (Error) thrown;
+        }
+    }
+
+    private ConcurrentPool<T> shardOf(T object) {
+        int index = objects.indexOf(object);
+        if (index < 0) { // avoids the formatting of the message on the hot path
+            forbidIllegalArgument(true, String.format("object %s was not created by this pool", object));
+        }
+        return shards[objectShards.get(index)];
+    }
+
+
+    @Override
+    public Listener<T> listener() {
+        return listener;
+    }
+
+    @Override
+    public boolean isFair() {
+        return fair;
+    }
+
+    @Override
+    public int taken() {
+        int taken = 0;
+        for (ConcurrentPool<T> shard : shards) {
+            taken += shard.taken();
+        }
+        return taken;
+    }
+
+    @Override
+    public int remainingCreated() {
+        int remainingCreated = 0;
+        for (ConcurrentPool<T> shard : shards) {
+            remainingCreated += shard.remainingCreated();
+        }
+        return remainingCreated;
+    }
+
+    @Override
+    public int createdTotal() {
+        int createdTotal = 0;
+        for (ConcurrentPool<T> shard : shards) {
+            createdTotal += shard.createdTotal();
+        }
+        return createdTotal;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        int remainingCapacity = 0;
+        for (ConcurrentPool<T> shard : shards) {
+            remainingCapacity += shard.remainingCapacity();
+        }
+        return remainingCapacity;
+    }
+
+    @Override
+    public int initialSize() {
+        return initialSize;
+    }
+
+    @Override
+    public int maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int minIdle() {
+        return 0;
+    }
+
+
+    @Override
+    public int increaseCreatedBy(int increaseBy) {
+        forbidIllegalArgument(increaseBy < 0, String.format("increaseBy %s should be >= 0", increaseBy));
+        return new RoundRobin<ConcurrentPool<T>>() {
+            @Override
+            boolean applyOnce(ConcurrentPool<T> shard) {
+                return shard.increaseCreatedBy(1) == 1;
+            }
+        }.apply(shardList, increaseBy);
+    }
+
+    @Override
+    public int reduceCreatedBy(int reduceBy, final boolean ignoreInitialSize) {
+        forbidIllegalArgument(reduceBy < 0, String.format("reduceBy %s should be >= 0", reduceBy));
+        return new RoundRobin<ConcurrentPool<T>>() {
+            @Override
+            boolean applyOnce(ConcurrentPool<T> shard) {
+                return shard.reduceCreatedBy(1, ignoreInitialSize) == 1;
+            }
+        }.apply(shardList, reduceBy);
+    }
+
+    @Override
+    public int reduceCreatedTo(int reduceTo, boolean ignoreInitialSize) {
+        forbidIllegalArgument(reduceTo < 0, String.format("reduceTo %s should be >= 0", reduceTo));
+        return reduceCreatedBy(Math.max(createdTotal() - reduceTo, 0), ignoreInitialSize);
+    }
+
+    @Override
+    public int reduceIdleBy(int reduceBy, final long idleTime, final TimeUnit unit, final boolean ignoreInitialSize) {
+        forbidIllegalArgument(reduceBy < 0, String.format("reduceBy %s should be >= 0", reduceBy));
+        forbidIllegalArgument(idleTime < 0, String.format("idleTime %s should be >= 0", idleTime));
+        for (ConcurrentPool<T> shard : shards) {
+            shard.reduceIdleBy(0, idleTime, unit, ignoreInitialSize); // starts the recording of the idle times
+        }
+        return new RoundRobin<ConcurrentPool<T>>() {
+            @Override
+            boolean applyOnce(ConcurrentPool<T> shard) {
+                return shard.reduceIdleBy(1, idleTime, unit, ignoreInitialSize) == 1;
+            }
+        }.apply(shardList, reduceBy);
+    }
+
+    @Override
+    public int validateIdle(int validateBy) {
+        forbidIllegalArgument(validateBy < 0, String.format("validateBy %s should be >= 0", validateBy));
+        int invalid = 0;
+        for (ConcurrentPool<T> shard : shards) {
+            invalid += shard.validateIdle((validateBy + shards.length - 1) / shards.length);
+        }
+        return invalid;
+    }
+
+    @Override
+    public int drainCreated() {
+        int drained = 0;
+        for (ConcurrentPool<T> shard : shards) {
+            drained += shard.drainCreated();
+        }
+        return drained;
+    }
+
+
+    @Override
+    public void terminate() {
+        for (ConcurrentPool<T> shard : shards) {
+            shard.terminate();
+        }
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shards[0].isTerminated();
+    }
+
+    @Override
+    public void close() {
+        terminate();
+    }
+
+
+    /** Takes an object or a lease from a shard without waiting, creating a new object only if allowed. */
+    private abstract class Taker<R> {
+        abstract R take(ConcurrentPool<T> shard, boolean create);
+    }
+
+    /**
+     * A shard which wakes up the first waiter of this pool whenever an object is restored to it, including via
+     * the closing of a lease.
+     */
+    private final class Shard extends ConcurrentPool<T> {
+
+        private Shard(PoolObjectFactory<T> poolObjectFactory, int initialSize, int maxSize,
+                      boolean fair, Listener<T> listener) {
+            super(new ConcurrentLinkedDequeCollection<T>(), poolObjectFactory, initialSize, maxSize, fair, listener);
+        }
+
+        @Override
+        public void restore(T object, boolean valid) {
+            try {
+                super.restore(object, valid);
+            } finally {
+                wakeUpWaiter();
+            }
+        }
+    }
+
+    /**
+     * Decorates the object factory of a shard, so that each created object is registered with the index
+     * of its shard until it is destroyed.
+     */
+    private final class ShardObjectFactory implements PoolObjectFactory<T> {
+        private final PoolObjectFactory<T> poolObjectFactory;
+        private final int shard;
+
+        private ShardObjectFactory(PoolObjectFactory<T> poolObjectFactory, int shard) {
+            this.poolObjectFactory = poolObjectFactory;
+            this.shard = shard;
+        }
+
+        @Override
+        public T create() {
+            T object = poolObjectFactory.create();
+            if (object == null) {
+                return null;
+            }
+            int index = objects.insert(object);
+            if (index < 0) {
+                poolObjectFactory.destroy(object);
+                throw new IllegalStateException("the objects registry of ShardedPool is full");
+            }
+            objectShards.set(index, shard);
+            return object;
+        }
+
+        @Override
+        public boolean readyToTake(T obj) {
+            return poolObjectFactory.readyToTake(obj);
+        }
+
+        @Override
+        public boolean readyToRestore(T obj) {
+            return poolObjectFactory.readyToRestore(obj);
+        }
+
+        @Override
+        public boolean readyToKeepIdle(T obj) {
+            return poolObjectFactory.readyToKeepIdle(obj);
+        }
+
+        @Override
+        public void destroy(T obj) {
+            objects.remove(obj);
+            poolObjectFactory.destroy(obj);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A non-recycled {@link Lease}, which is created anew for every taken object by the default
+ * {@link PoolService#takeLease()} and {@link PoolService#tryTakeLease} implementations. Its stamp is {@code 1}
+ * while the lease is open, {@code 3} if the leased object has been marked invalid, and {@code 4} once the lease
+ * has been closed.
+ *
+ * @author agent
+ * @param <T> the type of objects held in the object pool
+ */
+final class SimpleLease<T> implements Lease<T> {
+
+    private static final long OPEN = 1;
+    private static final long INVALID = 2;
+    private static final long CLOSED = 4;
+
+    private final PoolService<T> pool;
+    private final T object;
+    private final AtomicLong stamp = new AtomicLong(OPEN);
+
+    SimpleLease(PoolService<T> pool, T object) {
+        this.pool = pool;
+        this.object = requireNonNull(object);
+    }
+
+    @Override
+    public T get() {
+        return get(stamp());
+    }
+
+    @Override
+    public T get(long stamp) {
+        checkOpen(stamp);
+        return object;
+    }
+
+    @Override
+    public void markInvalid() {
+        markInvalid(stamp());
+    }
+
+    @Override
+    public void markInvalid(long stamp) {
+        checkOpen(stamp);
+        this.stamp.compareAndSet(OPEN, OPEN | INVALID);
+    }
+
+    @Override
+    public long stamp() {
+        return stamp.get() & ~INVALID;
+    }
+
+    @Override
+    public void close() {
+        close(stamp());
+    }
+
+    @Override
+    public void close(long stamp) {
+        long current;
+        do {
+            current = this.stamp.get();
+            if (stamp != OPEN || current == CLOSED) {
+                return; // already closed
+            }
+        } while (!this.stamp.compareAndSet(current, CLOSED));
+
+        pool.restore(object, current == OPEN);
+    }
+
+    private void checkOpen(long stamp) {
+        if (stamp != OPEN || this.stamp.get() == CLOSED) {
+            throw new IllegalStateException("Lease is closed");
+        }
+    }
+}
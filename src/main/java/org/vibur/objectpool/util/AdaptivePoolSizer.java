@@ -0,0 +1,202 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import org.vibur.objectpool.BasePool;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A {@link SamplingPoolReducer} which, in addition to reducing the pool, also grows it proactively based on
+ * a forecast of the near-term demand. On each sample this sizer updates an exponentially weighted moving average
+ * (EWMA) of the number of {@link BasePool#taken() taken} objects, together with an EWMA of its trend, i.e. of its
+ * change per sample, which reflects the rate at which the demand is ramping up or down. The demand forecast is
+ * the average plus the positive trend extrapolated {@value #FORECAST_SAMPLES} samples ahead. Whenever the
+ * {@link BasePool#createdTotal() created} objects are less than the forecast plus a configurable headroom, the
+ * missing objects are created right away from the sizer thread, so that the take operations do not need to
+ * create them on the request path.
+ *
+ * <p>The shrinking is conservative: at the end of each time interval the pool is reduced as calculated by the
+ * {@link SamplingPoolReducer}, but not below the forecast plus headroom, and not below the peak demand plus
+ * headroom. The peak demand is the highest number of taken objects observed during the interval, or the
+ * previous peak demand decayed by the smoothing factor, whichever is higher; hence, the pool does not shrink
+ * between recurring traffic spikes.
+ *
+ * <p>The {@code taken} objects include only the objects which have been given out by the pool; the threads
+ * waiting for an object are reflected in the forecast once the demand has reached the pool {@code maxSize},
+ * which this sizer never exceeds.
+ *
+ * @author agent
+ */
+public class AdaptivePoolSizer extends SamplingPoolReducer {
+
+    protected static final double DEFAULT_SMOOTHING = 0.3;
+    protected static final double DEFAULT_HEADROOM = 0.2;
+    protected static final int FORECAST_SAMPLES = 2;
+
+    private final BasePool pool;
+    private final double smoothing;
+    private final double headroom;
+
+    private boolean sampled = false;
+    private double level;
+    private double trend;
+    private int intervalPeak;
+    private double peak;
+
+    /**
+     * Creates a new {@link AdaptivePoolSizer} with the given {@link BasePool} and {@code timeInterval} settings,
+     * and with default smoothing factor and headroom. The created sizer is not started and needs to be
+     * explicitly started via calling the {@link #start()} method.
+     *
+     * @param pool the pool that is to be grown or reduced if necessary
+     * @param timeInterval the time period after which the sizer will try to possibly reduce the number of
+     *                     created but unused objects in the given {@code pool}
+     * @param unit the time unit of the {@code timeInterval} argument
+     * @param samples how many times the sizer will wake up during the given {@code timeInterval} period in order
+     *                to sample the demand and possibly grow the given {@code pool}
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code timeInterval <= 0 || samples <= 0}
+     * @throws NullPointerException if one of the following holds:<br>
+     *         {@code pool == null || unit == null}
+     */
+    public AdaptivePoolSizer(BasePool pool, long timeInterval, TimeUnit unit, int samples) {
+        this(pool, timeInterval, unit, samples, DEFAULT_SMOOTHING, DEFAULT_HEADROOM);
+    }
+
+    /**
+     * Creates a new {@link AdaptivePoolSizer} with the given {@link BasePool}, {@code timeInterval}, smoothing
+     * factor and headroom settings. The created sizer is not started and needs to be explicitly started via
+     * calling the {@link #start()} method.
+     *
+     * @param pool the pool that is to be grown or reduced if necessary
+     * @param timeInterval the time period after which the sizer will try to possibly reduce the number of
+     *                     created but unused objects in the given {@code pool}
+     * @param unit the time unit of the {@code timeInterval} argument
+     * @param samples how many times the sizer will wake up during the given {@code timeInterval} period in order
+     *                to sample the demand and possibly grow the given {@code pool}
+     * @param smoothing the weight of the newest sample in the moving averages; higher values make the sizer
+     *                  react faster to the demand changes
+     * @param headroom the fraction of the forecast demand which is kept created in the pool in addition to
+     *                 the forecast demand
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code timeInterval <= 0 || samples <= 0 || smoothing <= 0 || smoothing > 1 || headroom < 0}
+     * @throws NullPointerException if one of the following holds:<br>
+     *         {@code pool == null || unit == null}
+     */
+    public AdaptivePoolSizer(BasePool pool, long timeInterval, TimeUnit unit, int samples,
+                             double smoothing, double headroom) {
+        this(pool, timeInterval, unit, samples, smoothing, headroom, null);
+    }
+
+    /**
+     * Creates a new {@link AdaptivePoolSizer} with the given {@link BasePool}, {@code timeInterval}, smoothing
+     * factor and headroom settings, which will be run on the threads of the given {@code scheduler}. The created
+     * sizer is not started and needs to be explicitly started via calling the {@link #start()} method.
+     *
+     * @param pool the pool that is to be grown or reduced if necessary
+     * @param timeInterval the time period after which the sizer will try to possibly reduce the number of
+     *                     created but unused objects in the given {@code pool}
+     * @param unit the time unit of the {@code timeInterval} argument
+     * @param samples how many times the sizer will wake up during the given {@code timeInterval} period in order
+     *                to sample the demand and possibly grow the given {@code pool}
+     * @param smoothing the weight of the newest sample in the moving averages; higher values make the sizer
+     *                  react faster to the demand changes
+     * @param headroom the fraction of the forecast demand which is kept created in the pool in addition to
+     *                 the forecast demand
+     * @param scheduler if not {@code null}, the scheduler on which this sizer will be run;
+     *                  otherwise the sizer will create its own daemon thread
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code timeInterval <= 0 || samples <= 0 || smoothing <= 0 || smoothing > 1 || headroom < 0}
+     * @throws NullPointerException if one of the following holds:<br>
+     *         {@code pool == null || unit == null}
+     */
+    public AdaptivePoolSizer(BasePool pool, long timeInterval, TimeUnit unit, int samples,
+                             double smoothing, double headroom, PoolReducerScheduler scheduler) {
+        super(pool, timeInterval, unit, samples, scheduler);
+        forbidIllegalArgument(!(smoothing > 0 && smoothing <= 1),
+                String.format("smoothing %s should be > 0 and <= 1", smoothing));
+        forbidIllegalArgument(!(headroom >= 0), String.format("headroom %s should be >= 0", headroom));
+
+        this.pool = pool;
+        this.smoothing = smoothing;
+        this.headroom = headroom;
+    }
+
+    @Override
+    protected void samplePool() {
+        super.samplePool();
+
+        int taken = pool.taken();
+        if (!sampled) {
+            level = taken;
+            sampled = true;
+        }
+        else {
+            double previous = level;
+            level = smoothing * taken + (1 - smoothing) * (level + trend);
+            trend = smoothing * (level - previous) + (1 - smoothing) * trend;
+        }
+        intervalPeak = Math.max(intervalPeak, taken);
+
+        growPool(Math.max(taken, forecast()));
+    }
+
+    private void growPool(double demand) {
+        int growth = Math.min(target(demand), pool.maxSize()) - pool.createdTotal();
+        if (growth > 0 && !pool.isTerminated()) {
+            pool.increaseCreatedBy(growth);
+        }
+    }
+
+    @Override
+    protected void reducePool() {
+        peak = Math.max(intervalPeak, peak * (1 - smoothing));
+        intervalPeak = 0;
+        super.reducePool();
+    }
+
+    /**
+     * Calculates the reduction as described in {@link SamplingPoolReducer#calculateReduction()}, and further
+     * limits it so that the remaining allocated on the pool objects will <b>not</b> fall below the forecast demand
+     * or the peak demand, plus the headroom.
+     *
+     * @return the calculated reduction number
+     */
+    @Override
+    protected int calculateReduction() {
+        int reduction = super.calculateReduction();
+        int aboveTarget = pool.createdTotal() - target(Math.max(forecast(), peak));
+        return Math.max(Math.min(reduction, aboveTarget), 0);
+    }
+
+    private int target(double demand) {
+        return (int) Math.ceil(demand * (1 + headroom));
+    }
+
+    /**
+     * Returns the near-term forecast of the number of taken objects, as calculated from the last sample.
+     * This method is intended to be called from the {@link #afterReduce} hook or from the sizer thread.
+     *
+     * @return see above
+     */
+    protected double forecast() {
+        return level + Math.max(trend, 0) * FORECAST_SAMPLES;
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A {@link TakePermits} decorator which limits the number of threads waiting for a permit at any time. When
+ * no permit is immediately available and {@code maxWaiters} threads are already waiting, the blocking acquire
+ * operations throw a {@link TooManyWaitersException} right away instead of waiting; hence, the take operations of
+ * an exhausted pool shed the excess load in microseconds, rather than after their full timeout. The number of
+ * rejected acquire operations is reported by {@link #rejected()}.
+ *
+ * <p>The non-blocking {@code tryAcquire} operations, and the timed ones with a non-positive timeout, are never
+ * rejected. Note that with fair decorated permits, all blocking acquire operations are counted as waiting, as
+ * they cannot barge in. The prioritized take operations of {@link org.vibur.objectpool.ConcurrentPool}, and its
+ * timed take operations in the overload mode, wait in the pool waiters queue instead of in the decorated permits;
+ * these waiters count towards the same {@code maxWaiters} limit, and are rejected once it has been reached. The
+ * async take operations, which do not block the calling thread, are not limited.
+ *
+ * @author agent
+ */
+public class BoundedWaitersPermits implements TakePermits {
+
+    private final TakePermits permits;
+    private final int maxWaiters;
+    private final String rejectionMessage;
+
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a new {@code BoundedWaitersPermits} decorating the given permits.
+     *
+     * @param permits the permits to decorate
+     * @param maxWaiters the maximum number of threads waiting for a permit at any time
+     * @throws IllegalArgumentException if {@code maxWaiters < 0}
+     * @throws NullPointerException if {@code permits} is null
+     */
+    public BoundedWaitersPermits(TakePermits permits, int maxWaiters) {
+        forbidIllegalArgument(maxWaiters < 0, String.format("maxWaiters %s should be >= 0", maxWaiters));
+        this.permits = requireNonNull(permits);
+        this.maxWaiters = maxWaiters;
+        this.rejectionMessage = String.format("the max number of %s waiters has been reached", maxWaiters);
+    }
+
+    @Override
+    public void acquire() throws InterruptedException {
+        if (tryBarge(1) || !startWaiting(1)) {
+            return;
+        }
+        try {
+            permits.acquire();
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void acquireUninterruptibly() {
+        if (tryBarge(1) || !startWaiting(1)) {
+            return;
+        }
+        try {
+            permits.acquireUninterruptibly();
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        return this.permits.tryAcquire(permits);
+    }
+
+    @Override
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        return tryAcquire(1, timeout, unit);
+    }
+
+    @Override
+    public boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+        if (timeout <= 0) {
+            return this.permits.tryAcquire(permits, timeout, unit);
+        }
+        if (tryBarge(permits) || !startWaiting(permits)) {
+            return true;
+        }
+        try {
+            return this.permits.tryAcquire(permits, timeout, unit);
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Tries to acquire the permits without waiting, if the decorated permits are not fair.
+     */
+    private boolean tryBarge(int permits) {
+        return !this.permits.isFair() && this.permits.tryAcquire(permits);
+    }
+
+    /**
+     * Registers the calling thread as a waiter, or if the max waiters has been reached, makes a last attempt to
+     * acquire the permits without waiting, and if it fails too, rejects the calling thread.
+     *
+     * @return {@code true} if the calling thread has been registered as a waiter, and {@code false} if it has
+     * acquired the permits
+     * @throws TooManyWaitersException if the calling thread has been rejected
+     */
+    private boolean startWaiting(int permits) {
+        if (waiters.incrementAndGet() <= maxWaiters) {
+            return true;
+        }
+        waiters.decrementAndGet();
+        if (this.permits.tryAcquire(permits)) {
+            return false;
+        }
+        rejected.increment();
+        throw new TooManyWaitersException(rejectionMessage);
+    }
+
+    @Override
+    public void release() {
+        permits.release();
+    }
+
+    @Override
+    public void release(int permits) {
+        this.permits.release(permits);
+    }
+
+    @Override
+    public void reducePermits(int reduction) {
+        permits.reducePermits(reduction);
+    }
+
+    @Override
+    public void enterQueue() {
+        if (waiters.incrementAndGet() > maxWaiters) {
+            waiters.decrementAndGet();
+            rejected.increment();
+            throw new TooManyWaitersException(rejectionMessage);
+        }
+        try {
+            permits.enterQueue();
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            waiters.decrementAndGet();
+            throw t;
+        }
+    }
+
+    @Override
+    public void exitQueue(long waitedNanos, boolean timedOut, boolean interrupted) {
+        waiters.decrementAndGet();
+        permits.exitQueue(waitedNanos, timedOut, interrupted);
+    }
+
+    @Override
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public boolean isFair() {
+        return permits.isFair();
+    }
+
+    /**
+     * Returns the maximum number of threads waiting for a permit at any time.
+     *
+     * @return see above
+     */
+    public int maxWaiters() {
+        return maxWaiters;
+    }
+
+    /**
+     * Returns the number of threads currently waiting for a permit.
+     *
+     * @return see above
+     */
+    public int waiters() {
+        return waiters.get();
+    }
+
+    /**
+     * Returns the number of acquire operations rejected because the max waiters had been reached.
+     *
+     * @return see above
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A coarse monotonic clock, which is a {@link System#nanoTime()} value cached in a volatile field and updated
+ * every {@value #RESOLUTION_MILLIS} milliseconds by a daemon thread. Reading this clock is as cheap as
+ * a volatile read, which makes it suitable for timestamping of the pool operations where the precision of
+ * a few milliseconds is sufficient, such as for the idle times or the lifetimes of the pooled objects.
+ *
+ * <p>The daemon thread runs only while the clock is used by at least one started {@link IdlePoolReducer} or
+ * {@link IdleValidator}, which start and stop the clock together with their own threads; while the daemon thread
+ * is not running, this clock reads {@link System#nanoTime()} directly.
+ *
+ * @author agent
+ */
+public final class CoarseClock {
+
+    public static final long RESOLUTION_MILLIS = 10;
+
+    private static final long STOPPED = Long.MIN_VALUE;
+
+    private static volatile long nanoTime = STOPPED;
+
+    private static final AtomicInteger users = new AtomicInteger();
+    private static final AtomicLong generation = new AtomicLong();
+    private static final AtomicReference<Thread> ticker = new AtomicReference<>();
+
+    private CoarseClock() { }
+
+    /**
+     * Returns the current value of this clock, which is a {@link System#nanoTime()} value which is at most
+     * about {@value #RESOLUTION_MILLIS} milliseconds old.
+     *
+     * @return the current value of this clock, in nanoseconds
+     */
+    public static long nanoTime() {
+        long time = nanoTime;
+        return time != STOPPED ? time : System.nanoTime();
+    }
+
+    /**
+     * Registers a user of this clock, and starts a new daemon thread updating the clock if this is the first user.
+     */
+    static void start() {
+        if (users.getAndIncrement() > 0) {
+            return;
+        }
+        final long gen = generation.incrementAndGet();
+        nanoTime = System.nanoTime();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                // the thread of a previous generation may still be running for up to the resolution after
+                // the last user is gone, and exits without stopping the clock if a new generation has started
+                while (users.get() > 0 && generation.get() == gen) {
+                    try {
+                        MILLISECONDS.sleep(RESOLUTION_MILLIS);
+                    } catch (InterruptedException ignored) {
+                        continue; // the interrupt may be meant for a thread of a previous generation
+                    }
+                    nanoTime = System.nanoTime();
+                }
+                if (generation.get() == gen) {
+                    nanoTime = STOPPED; // the clock is updated again within the resolution if restarted meanwhile
+                }
+                ticker.compareAndSet(Thread.currentThread(), null);
+            }
+        }, "vibur-object-pool-clock");
+        thread.setDaemon(true);
+        ticker.set(thread);
+        thread.start();
+    }
+
+    /**
+     * Unregisters a user of this clock, and stops the daemon thread updating the clock if this was the last user.
+     */
+    static void stop() {
+        int current;
+        do {
+            current = users.get();
+            if (current == 0) {
+                return;
+            }
+        } while (!users.compareAndSet(current, current - 1));
+
+        if (current == 1) {
+            Thread thread = ticker.get();
+            if (thread != null) {
+                thread.interrupt(); // wakes up the thread, which then exits as there are no users
+            }
+        }
+    }
+}
@@ -22,6 +22,10 @@ package org.vibur.objectpool.util;
  * methods to a Collection that does not have native implementation for {@code offerFirst()} or {@code pollLast()}
  * it can implement these methods in the same way as {@code offerLast()} or {@code pollFirst()}, and the vice versa.
  *
+ * <p>The bulk {@link #offerFirst(Object[], int)} and {@link #pollFirst(Object[], int)} methods have default
+ * implementations which delegate to the single object methods; the implementing sub-classes may override them
+ * if the underlying Collection has a native support for bulk operations.
+ *
  * @author Simeon Malchev
  * @param <T> the type of objects held in this {@code ConcurrentCollection}
  */
@@ -55,6 +59,35 @@ public interface ConcurrentCollection<T> {
      */
     T pollLast();
 
+    /**
+     * Adds the first {@code n} objects from the given array at the head of the {@code ConcurrentCollection}.
+     *
+     * @param objects the given objects
+     * @param n the number of objects to be added
+     */
+    default void offerFirst(T[] objects, int n) {
+        for (int i = 0; i < n; i++) {
+            offerFirst(objects[i]);
+        }
+    }
+
+    /**
+     * Polls up to {@code n} objects from the head of the {@code ConcurrentCollection}, and stores them
+     * at the beginning of the given array.
+     *
+     * @param objects the array in which the polled objects will be stored
+     * @param n the maximum number of objects to be polled
+     * @return the number of polled objects
+     */
+    default int pollFirst(T[] objects, int n) {
+        int polled = 0;
+        T object;
+        while (polled < n && (object = pollFirst()) != null) {
+            objects[polled++] = object;
+        }
+        return polled;
+    }
+
     /**
      * Returns the number of elements in this collection.
      *
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A fixed-capacity, lock-free and allocation-free set of objects compared by identity, which assigns to each
+ * contained object a slot index between {@code 0} and {@link #capacity()}. The slot indices can be used to keep
+ * per-object data in preallocated arrays, such as {@link java.util.concurrent.atomic.AtomicLongArray}s.
+ *
+ * <p>The set is an open-addressing hash table with linear probing, whose capacity is at least twice the given
+ * maximum number of objects. The removed objects leave behind tombstones which are reused by the subsequent
+ * insertions. The lookups probe at most as many slots as the longest probe sequence of an insertion so far, hence
+ * the lookup of an object which is not contained in the set is cheap, too, even when many tombstones have
+ * accumulated. An object must not be inserted while it is already contained in the set, and must not be
+ * concurrently inserted and removed; the pool {@code take} and {@code restore} operations on a given object
+ * naturally satisfy these requirements.
+ *
+ * @author agent
+ * @param <T> the type of objects held in this set
+ */
+public class IdentitySlots<T> {
+
+    private static final Object TOMBSTONE = new Object();
+
+    private final AtomicReferenceArray<Object> slots;
+    private final int mask;
+    private final AtomicInteger maxProbe = new AtomicInteger();
+
+    /**
+     * Creates a new {@code IdentitySlots} which can hold at least the given number of objects.
+     *
+     * @param maxObjects the maximum number of objects which will be contained in this set at any time
+     * @throws IllegalArgumentException if {@code maxObjects < 1 || maxObjects > 1 << 28}
+     */
+    public IdentitySlots(int maxObjects) {
+        forbidIllegalArgument(maxObjects < 1 || maxObjects > 1 << 28,
+                String.format("maxObjects %s should be between 1 and %s", maxObjects, 1 << 28));
+        int capacity = Integer.highestOneBit(maxObjects) << 2; // between 2x and 4x maxObjects
+        slots = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Inserts the given object into this set.
+     *
+     * @param object the object to insert
+     * @return the slot index assigned to the object, or {@code -1} if the set is full
+     */
+    public int insert(T object) {
+        int start = hash(object);
+        for (int i = 0; i <= mask; i++) {
+            int index = (start + i) & mask;
+            Object current = slots.get(index);
+            if ((current == null || current == TOMBSTONE) && slots.compareAndSet(index, current, object)) {
+                int probe;
+                while (i > (probe = maxProbe.get()) && !maxProbe.compareAndSet(probe, i)) {
+                    // retry
+                }
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot index of the given object.
+     *
+     * @param object the object to look for
+     * @return the slot index of the object, or {@code -1} if the object is not contained in this set
+     */
+    public int indexOf(T object) {
+        int start = hash(object);
+        int probes = maxProbe.get();
+        for (int i = 0; i <= probes; i++) {
+            int index = (start + i) & mask;
+            Object current = slots.get(index);
+            if (current == object) {
+                return index;
+            }
+            if (current == null) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the given object from this set.
+     *
+     * @param object the object to remove
+     * @return the slot index which the object had, or {@code -1} if the object was not contained in this set
+     */
+    public int remove(T object) {
+        int index = indexOf(object);
+        return index >= 0 && remove(index, object) ? index : -1;
+    }
+
+    /**
+     * Removes the given object from the given slot index.
+     *
+     * @param index the slot index as returned by {@link #indexOf}
+     * @param object the object to remove
+     * @return {@code true} if the object was in this slot and has been removed
+     */
+    public boolean remove(int index, T object) {
+        return slots.compareAndSet(index, object, TOMBSTONE);
+    }
+
+    /**
+     * Returns the object contained in the given slot.
+     *
+     * @param index the slot index
+     * @return the object in this slot, or {@code null} if the slot is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Object object = slots.get(index);
+        return object != TOMBSTONE ? (T) object : null;
+    }
+
+    /**
+     * Returns the number of slots of this set; all slot indices are less than this number.
+     *
+     * @return see above
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private int hash(Object object) {
+        int h = System.identityHashCode(object) * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+}
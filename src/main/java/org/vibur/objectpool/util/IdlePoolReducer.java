@@ -0,0 +1,170 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import org.vibur.objectpool.BasePool;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A pool reducer util, which is waken up periodically and removes (destroys) the available objects which have
+ * been idle for longer than a given {@code idleTime}, via {@link BasePool#reduceIdleBy}. The objects are removed
+ * starting from the least recently used end of the pool available objects, so that the most recently used
+ * objects remain intact.
+ *
+ * <p>This pool reducer will <b>not</b> bring the number of allocated on the pool objects to less than the pool
+ * {@code initial} size, nor the number of available objects to less than the pool {@code minIdle}.
+ *
+ * <p>This pool reducer creates one daemon service thread which will be started when the reducer's
+ * {@link #start()} method is called, and will be alive until the {@link #terminate()} method is called or until
+ * the calling application exits; alternatively, if a {@link PoolReducerScheduler} is supplied at the reducer's
+ * creation time, the reducer will be run on the threads shared by all reducers attached to that scheduler.
+ * Note that if an exception is thrown by the overridable
+ * {@link #afterReduce(int, int, Throwable)} method hook, it will terminate the IdlePoolReducer, including the
+ * reducer's background daemon thread.
+ *
+ * @author agent
+ */
+public class IdlePoolReducer implements ThreadedPoolReducer {
+
+    private final BasePool pool;
+    private final long idleNanoTime;
+    private final long sleepNanoTime;
+
+    private final ReducerTask reducerTask;
+
+    /**
+     * Creates a new {@link IdlePoolReducer} with the given {@link BasePool}, {@code idleTime} and
+     * {@code timeInterval} settings. The created pool reducer is not started and needs to be
+     * explicitly started via calling the {@link #start()} method.
+     *
+     * @param pool the pool that is to be reduced if necessary
+     * @param idleTime the time for which an available object has to be idle in order to be removed
+     * @param timeInterval the time period after which the {@link IdlePoolReducer} will try to remove
+     *                     the idle objects from the given {@code pool}
+     * @param unit the time unit of the {@code idleTime} and {@code timeInterval} arguments
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code idleTime < 0 || timeInterval <= 0}
+     * @throws NullPointerException if one of the following holds:<br>
+     *         {@code pool == null || unit == null}
+     */
+    public IdlePoolReducer(BasePool pool, long idleTime, long timeInterval, TimeUnit unit) {
+        this(pool, idleTime, timeInterval, unit, null);
+    }
+
+    /**
+     * Creates a new {@link IdlePoolReducer} with the given {@link BasePool}, {@code idleTime} and
+     * {@code timeInterval} settings, which will be run on the threads of the given {@code scheduler}.
+     * The created pool reducer is not started and needs to be explicitly started via calling
+     * the {@link #start()} method.
+     *
+     * @param pool the pool that is to be reduced if necessary
+     * @param idleTime the time for which an available object has to be idle in order to be removed
+     * @param timeInterval the time period after which the {@link IdlePoolReducer} will try to remove
+     *                     the idle objects from the given {@code pool}
+     * @param unit the time unit of the {@code idleTime} and {@code timeInterval} arguments
+     * @param scheduler if not {@code null}, the scheduler on which this pool reducer will be run;
+     *                  otherwise the pool reducer will create its own daemon thread
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code idleTime < 0 || timeInterval <= 0}
+     * @throws NullPointerException if one of the following holds:<br>
+     *         {@code pool == null || unit == null}
+     */
+    public IdlePoolReducer(BasePool pool, long idleTime, long timeInterval, TimeUnit unit,
+                           PoolReducerScheduler scheduler) {
+        forbidIllegalArgument(idleTime < 0, String.format("idleTime %s should be >= 0", idleTime));
+        forbidIllegalArgument(timeInterval <= 0, String.format("timeInterval %s should be > 0", timeInterval));
+
+        this.pool = requireNonNull(pool);
+        this.idleNanoTime = unit.toNanos(idleTime);
+        this.sleepNanoTime = unit.toNanos(timeInterval);
+
+        this.reducerTask = new ReducerTask(new PoolReducerRunnable(), sleepNanoTime, scheduler, true);
+    }
+
+    /**
+     * {@inheritDoc} Also makes the pool start recording the idle times of its objects.
+     */
+    @Override
+    public void start() {
+        pool.reduceIdleBy(0, idleNanoTime, NANOSECONDS, false);
+        reducerTask.start(getThreadName());
+    }
+
+    protected String getThreadName() {
+        return reducerTask.getThreadName();
+    }
+
+    private class PoolReducerRunnable implements Runnable {
+        @Override
+        public void run() {
+            reducePool();
+        }
+    }
+
+    protected void reducePool() {
+        int reduction = calculateReduction();
+
+        int reduced = -1;
+        Throwable thrown = null;
+        try {
+            reduced = pool.reduceIdleBy(reduction, idleNanoTime, NANOSECONDS, false);
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            thrown = t;
+        } finally {
+            afterReduce(reduction, reduced, thrown);
+        }
+    }
+
+    /**
+     * Calculates the maximum number of idle objects that can be removed from the pool, so that the number of
+     * available objects will <b>not</b> fall below the pool {@code minIdle}.
+     *
+     * @return the calculated maximum reduction number
+     */
+    protected int calculateReduction() {
+        return Math.max(pool.remainingCreated() - pool.minIdle(), 0);
+    }
+
+    /**
+     * An after reduce pool hook. The default implementation will {@code terminate()} this pool reducer
+     * if {@code thrown != null}. Note that if this method throws an exception, this
+     * will terminate the pool reducer, too.
+     *
+     * @param reduction the maximum reduction number
+     * @param reduced the number of idle objects which were successfully removed/destroyed from the pool
+     * @param thrown a thrown during the pool reduction exception if any.
+     */
+    protected void afterReduce(int reduction, int reduced, Throwable thrown) {
+        if (thrown != null) {
+            terminate();
+        }
+    }
+
+    @Override
+    public Thread.State getState() {
+        return reducerTask.getState();
+    }
+
+    @Override
+    public void terminate() {
+        reducerTask.terminate();
+    }
+}
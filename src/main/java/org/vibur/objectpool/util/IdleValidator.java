@@ -0,0 +1,166 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import org.vibur.objectpool.BasePool;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A pool util, which is waken up periodically and validates up to a given number of the least recently used
+ * available objects of the pool, via {@link BasePool#validateIdle}. The objects which fail the validation are
+ * destroyed and replaced with new objects by the validator thread, instead of by the take operations.
+ *
+ * <p>The number of objects validated on each run, together with the number of threads running the validators,
+ * bounds the validation load which the validators put on the pooled resources: the objects of one pool are
+ * validated one at a time, and if the validators of many pools share a {@link PoolReducerScheduler}, at most
+ * as many objects as the scheduler threads are validated at the same time. To skip the take operation
+ * validations of the objects validated by this validator, the pool should use an
+ * {@link IntervalValidatingObjectFactory}.
+ *
+ * <p>This validator creates one daemon service thread which will be started when the validator's
+ * {@link #start()} method is called, and will be alive until the {@link #terminate()} method is called or until
+ * the calling application exits; alternatively, if a {@link PoolReducerScheduler} is supplied at the validator's
+ * creation time, the validator will be run on the threads shared by all reducers attached to that scheduler.
+ * Note that if an exception is thrown by the overridable {@link #afterValidate(int, int, Throwable)} method hook,
+ * it will terminate the IdleValidator, including the validator's background daemon thread.
+ *
+ * @author agent
+ */
+public class IdleValidator implements ThreadedPoolReducer {
+
+    private final BasePool pool;
+    private final int maxValidations;
+
+    private final ReducerTask reducerTask;
+
+    /**
+     * Creates a new {@link IdleValidator} with the given {@link BasePool}, {@code maxValidations} and
+     * {@code timeInterval} settings. The created validator is not started and needs to be
+     * explicitly started via calling the {@link #start()} method.
+     *
+     * @param pool the pool whose available objects are to be validated
+     * @param maxValidations the maximum number of objects validated on each run of the validator
+     * @param timeInterval the time period after which the {@link IdleValidator} will validate
+     *                     the available objects of the given {@code pool}
+     * @param unit the time unit of the {@code timeInterval} argument
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code maxValidations < 1 || timeInterval <= 0}
+     * @throws NullPointerException if one of the following holds:<br>
+     *         {@code pool == null || unit == null}
+     */
+    public IdleValidator(BasePool pool, int maxValidations, long timeInterval, TimeUnit unit) {
+        this(pool, maxValidations, timeInterval, unit, null);
+    }
+
+    /**
+     * Creates a new {@link IdleValidator} with the given {@link BasePool}, {@code maxValidations} and
+     * {@code timeInterval} settings, which will be run on the threads of the given {@code scheduler}.
+     * The created validator is not started and needs to be explicitly started via calling
+     * the {@link #start()} method.
+     *
+     * @param pool the pool whose available objects are to be validated
+     * @param maxValidations the maximum number of objects validated on each run of the validator
+     * @param timeInterval the time period after which the {@link IdleValidator} will validate
+     *                     the available objects of the given {@code pool}
+     * @param unit the time unit of the {@code timeInterval} argument
+     * @param scheduler if not {@code null}, the scheduler on which this validator will be run;
+     *                  otherwise the validator will create its own daemon thread
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code maxValidations < 1 || timeInterval <= 0}
+     * @throws NullPointerException if one of the following holds:<br>
+     *         {@code pool == null || unit == null}
+     */
+    public IdleValidator(BasePool pool, int maxValidations, long timeInterval, TimeUnit unit,
+                         PoolReducerScheduler scheduler) {
+        forbidIllegalArgument(maxValidations < 1, String.format("maxValidations %s should be >= 1", maxValidations));
+        forbidIllegalArgument(timeInterval <= 0, String.format("timeInterval %s should be > 0", timeInterval));
+
+        this.pool = requireNonNull(pool);
+        this.maxValidations = maxValidations;
+
+        this.reducerTask = new ReducerTask(new ValidatorRunnable(), unit.toNanos(timeInterval), scheduler, true);
+    }
+
+    @Override
+    public void start() {
+        reducerTask.start(getThreadName());
+    }
+
+    protected String getThreadName() {
+        return reducerTask.getThreadName();
+    }
+
+    private class ValidatorRunnable implements Runnable {
+        @Override
+        public void run() {
+            validatePool();
+        }
+    }
+
+    protected void validatePool() {
+        int validations = calculateValidations();
+
+        int invalid = -1;
+        Throwable thrown = null;
+        try {
+            invalid = pool.validateIdle(validations);
+        } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+            thrown = t;
+        } finally {
+            afterValidate(validations, invalid, thrown);
+        }
+    }
+
+    /**
+     * Calculates the number of available objects to be validated on this run of the validator.
+     * The default implementation returns the configured {@code maxValidations}.
+     *
+     * @return the calculated validations number
+     */
+    protected int calculateValidations() {
+        return maxValidations;
+    }
+
+    /**
+     * An after validate pool hook. The default implementation will {@code terminate()} this validator
+     * if {@code thrown != null}. Note that if this method throws an exception, this
+     * will terminate the validator, too.
+     *
+     * @param validations the intended validations number
+     * @param invalid the number of objects which failed the validation and were destroyed
+     * @param thrown a thrown during the pool validation exception if any.
+     */
+    protected void afterValidate(int validations, int invalid, Throwable thrown) {
+        if (thrown != null) {
+            terminate();
+        }
+    }
+
+    @Override
+    public Thread.State getState() {
+        return reducerTask.getState();
+    }
+
+    @Override
+    public void terminate() {
+        reducerTask.terminate();
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Listener} which tracks all objects taken from the pool and can provide a list of them, similarly to
+ * {@link TakenListener}, however, without hashing into and allocating nodes of a concurrent hash map. Each taken
+ * object is assigned a slot in a preallocated {@link IdentitySlots} set whose capacity is proportional to
+ * the pool max size; the {@code onTake} and {@code onRestore} methods are a single compare-and-set of the object
+ * slot, preceded by a short lookup of the slot in the case of {@code onRestore}, and do not allocate.
+ *
+ * <p>This listener can be used when every taken object needs to be tracked, for example, in order to forcibly
+ * clean up the taken objects when the application shuts down.
+ *
+ * <p>The capacity of the set is fixed at creation time to between 2 and 4 times the given {@code maxSize}. If more
+ * objects than the set capacity are taken at the same time, for example, after the max size of the pool has been
+ * increased via {@link org.vibur.objectpool.ConcurrentPool#setMaxSize}, the excess objects are not tracked and are
+ * not returned by {@link #getTaken}; their number is reported by {@link #untracked()}. This listener does not throw
+ * in such case, as an exception thrown from {@code onTake} would leave the object taken without being returned
+ * to the caller.
+ *
+ * @author agent
+ * @param <T> the type of objects held in the pool
+ */
+public class IndexedTakenListener<T> implements Listener<T> {
+
+    private final IdentitySlots<T> taken;
+    private final LongAdder untracked = new LongAdder();
+
+    /**
+     * Creates a new {@code IndexedTakenListener} for a pool with the given max size.
+     *
+     * @param maxSize the max size of the pool, i.e. the max number of objects which can be taken at any time
+     * @throws IllegalArgumentException if {@code maxSize < 1 || maxSize > 1 << 28}
+     */
+    public IndexedTakenListener(int maxSize) {
+        taken = new IdentitySlots<>(maxSize);
+    }
+
+    @Override
+    public void onTake(T object) {
+        if (taken.insert(object) < 0) {
+            untracked.increment();
+        }
+    }
+
+    @Override
+    public void onRestore(T object) {
+        taken.remove(object);
+    }
+
+    /**
+     * Returns the number of take operations whose objects could not be tracked because the set of the taken
+     * objects was full at that time.
+     *
+     * @return see above
+     */
+    public long untracked() {
+        return untracked.sum();
+    }
+
+    /**
+     * Returns the currently taken objects, in the manner of {@link java.util.Collection#toArray(Object[])}.
+     * The objects which are taken or restored concurrently with this call may or may not be included.
+     *
+     * @param a the array into which the taken objects are to be stored, if it is big enough; otherwise, a new
+     *          array of the same runtime type is allocated for this purpose
+     * @return an array containing the taken objects
+     */
+    public T[] getTaken(T[] a) {
+        T[] result = a;
+        int size = 0;
+        for (int i = 0; i < taken.capacity(); i++) {
+            T object = taken.get(i);
+            if (object != null) {
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, Math.max(16, size * 2));
+                }
+                result[size++] = object;
+            }
+        }
+
+        if (result == a) {
+            if (size < a.length) {
+                a[size] = null;
+            }
+            return a;
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import org.vibur.objectpool.PoolObjectFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.Objects.requireNonNull;
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A {@link PoolObjectFactory} decorator which skips the {@link #readyToTake} and {@link #readyToKeepIdle}
+ * validations of the objects which have been successfully validated (or created) within a given
+ * {@code validationInterval}. The validation times are
+ * measured via the {@link CoarseClock} and are kept in an {@link IdentitySlots} set and a preallocated array;
+ * hence, no allocations are made by the take operations.
+ *
+ * <p>This factory is intended to be used together with an {@link IdleValidator}, which validates the idle objects
+ * of the pool in the background, so that the take operations will find them already validated:
+ * <pre>
+ * PoolService&lt;T&gt; pool = new ConcurrentPool&lt;&gt;(available,
+ *         new IntervalValidatingObjectFactory&lt;&gt;(poolObjectFactory, maxSize, 30, TimeUnit.SECONDS),
+ *         initialSize, maxSize, fair);
+ * new IdleValidator(pool, 10, 10, TimeUnit.SECONDS).start();
+ * </pre>
+ * The validator interval should be shorter than the {@code validationInterval}, so that the idle objects are
+ * revalidated before their validation expires.
+ *
+ * @author agent
+ * @param <T> the type of objects held in the pool
+ */
+public class IntervalValidatingObjectFactory<T> implements PoolObjectFactory<T> {
+
+    private final PoolObjectFactory<T> poolObjectFactory;
+    private final long validationIntervalNanos;
+
+    private final IdentitySlots<T> slots;
+    private final AtomicLongArray validated;
+
+    /**
+     * Creates a new {@code IntervalValidatingObjectFactory} which decorates the given factory.
+     *
+     * @param poolObjectFactory  the factory to decorate
+     * @param maxSize            the max size of the pool, i.e. the max number of objects which can exist at any time
+     * @param validationInterval the time for which a successful validation of an object remains valid
+     * @param unit               the time unit of the {@code validationInterval} argument
+     * @throws IllegalArgumentException if {@code maxSize < 1 || validationInterval < 0}
+     * @throws NullPointerException if {@code poolObjectFactory} or {@code unit} are null
+     */
+    public IntervalValidatingObjectFactory(PoolObjectFactory<T> poolObjectFactory, int maxSize,
+                                           long validationInterval, TimeUnit unit) {
+        forbidIllegalArgument(validationInterval < 0,
+                String.format("validationInterval %s should be >= 0", validationInterval));
+
+        this.poolObjectFactory = requireNonNull(poolObjectFactory);
+        this.validationIntervalNanos = unit.toNanos(validationInterval);
+
+        this.slots = new IdentitySlots<>(maxSize);
+        this.validated = new AtomicLongArray(slots.capacity());
+    }
+
+    @Override
+    public T create() {
+        T object = poolObjectFactory.create();
+        if (object != null) {
+            markValidated(object, slots.insert(object));
+        }
+        return object;
+    }
+
+    @Override
+    public boolean readyToTake(T obj) {
+        int index = slots.indexOf(obj);
+        if (index >= 0 && CoarseClock.nanoTime() - validated.get(index) < validationIntervalNanos) {
+            return true;
+        }
+
+        boolean ready = poolObjectFactory.readyToTake(obj);
+        if (ready) {
+            markValidated(obj, index >= 0 ? index : slots.insert(obj));
+        }
+        return ready;
+    }
+
+    @Override
+    public boolean readyToRestore(T obj) {
+        return poolObjectFactory.readyToRestore(obj);
+    }
+
+    @Override
+    public boolean readyToKeepIdle(T obj) {
+        int index = slots.indexOf(obj);
+        if (index >= 0 && CoarseClock.nanoTime() - validated.get(index) < validationIntervalNanos) {
+            return true;
+        }
+
+        boolean ready = poolObjectFactory.readyToKeepIdle(obj);
+        if (ready) {
+            markValidated(obj, index >= 0 ? index : slots.insert(obj));
+        }
+        return ready;
+    }
+
+    @Override
+    public void destroy(T obj) {
+        slots.remove(obj);
+        poolObjectFactory.destroy(obj);
+    }
+
+    private void markValidated(T object, int index) {
+        if (index >= 0) {
+            validated.lazySet(index, CoarseClock.nanoTime()); // published by the offer to the available objects
+        }
+    }
+}
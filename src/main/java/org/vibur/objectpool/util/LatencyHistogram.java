@@ -0,0 +1,243 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A lock-free and allocation-free histogram of latencies, in nanoseconds, with log-linear buckets: each power of 2
+ * range of values is divided into {@value #SUB_BUCKETS} equal sub-buckets, which bounds the relative error of the
+ * reported percentiles to 1/{@value #SUB_BUCKETS}. The bucket counters are striped by thread in order to reduce
+ * the contention when many threads record values concurrently.
+ *
+ * <p>Recording a value is a single atomic increment of the bucket counter, plus an atomic add to the striped sum
+ * and a rarely contended update of the max value. The {@link #snapshot()} operation merges the stripes and returns
+ * an immutable {@link Snapshot} from which the percentiles can be read.
+ *
+ * @author agent
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private static final int STRIDE = BUCKETS + 1; // the last element of each stripe holds the stripe's sum
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * STRIDE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the given latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values are recorded as {@code 0}
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int base = stripe() * STRIDE;
+        counts.getAndIncrement(base + bucketIndex(nanos));
+        if (nanos > 0) { // the zero waits of the uncontended take operations are common
+            counts.getAndAdd(base + BUCKETS, nanos);
+        }
+
+        long current;
+        while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) {
+            // retry
+        }
+    }
+
+    /**
+     * Records the latency elapsed since the given start time.
+     *
+     * @param startNanos the start time as returned by {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the recorded values. The snapshot is not atomic with regards to
+     * the values recorded concurrently with taking it.
+     *
+     * @return see above
+     */
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        for (int s = 0; s < STRIPES; s++) {
+            int base = s * STRIDE;
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = counts.get(base + i);
+                buckets[i] += c;
+                count += c;
+            }
+            sum += counts.get(base + BUCKETS);
+        }
+        return new Snapshot(buckets, count, sum, max.get());
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exp - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static int stripes(int processors) {
+        int stripes = 1;
+        while (stripes < processors && stripes < 8) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 58) & (STRIPES - 1);
+    }
+
+    /**
+     * An immutable snapshot of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] buckets, long count, long sum, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return see above
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Returns the mean of the recorded values in nanoseconds, or {@code 0} if no values have been recorded.
+         *
+         * @return see above
+         */
+        public double mean() {
+            return count > 0 ? (double) sum / count : 0;
+        }
+
+        /**
+         * Returns the maximum recorded value in nanoseconds.
+         *
+         * @return see above
+         */
+        public long max() {
+            return max;
+        }
+
+        /**
+         * Returns the value in nanoseconds below which the given percentage of the recorded values fall,
+         * or {@code 0} if no values have been recorded. The returned value is the upper bound of the histogram
+         * bucket in which the percentile falls, capped by the maximum recorded value.
+         *
+         * @param percentile the percentile, a number between {@code 0} and {@code 100}
+         * @return see above
+         * @throws IllegalArgumentException if {@code percentile < 0 || percentile > 100}
+         */
+        public long percentile(double percentile) {
+            forbidIllegalArgument(percentile < 0 || percentile > 100,
+                    String.format("percentile %s should be between 0 and 100", percentile));
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Returns the median of the recorded values in nanoseconds, as described in {@link #percentile}.
+         *
+         * @return see above
+         */
+        public long p50() {
+            return percentile(50);
+        }
+
+        /**
+         * Returns the 99th percentile of the recorded values in nanoseconds, as described in {@link #percentile}.
+         *
+         * @return see above
+         */
+        public long p99() {
+            return percentile(99);
+        }
+
+        /**
+         * Returns the 99.9th percentile of the recorded values in nanoseconds, as described in {@link #percentile}.
+         *
+         * @return see above
+         */
+        public long p999() {
+            return percentile(99.9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, mean=%.1fus, p50=%.1fus, p99=%.1fus, p999=%.1fus, max=%.1fus",
+                    count, toMicros(mean()), toMicros(p50()), toMicros(p99()), toMicros(p999()), toMicros(max));
+        }
+
+        private static double toMicros(double nanos) {
+            return nanos / TimeUnit.MICROSECONDS.toNanos(1);
+        }
+    }
+}
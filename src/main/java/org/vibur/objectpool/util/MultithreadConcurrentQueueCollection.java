@@ -54,6 +54,14 @@ public class MultithreadConcurrentQueueCollection<T> implements ConcurrentCollec
         return pollFirst();
     }
 
+    @Override
+    public int pollFirst(T[] objects, int n) {
+        if (n == objects.length) {
+            return queue.remove(objects);
+        }
+        return ConcurrentCollection.super.pollFirst(objects, n);
+    }
+
     @Override
     public int size() {
         return queue.size();
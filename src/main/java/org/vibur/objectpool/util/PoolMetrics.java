@@ -0,0 +1,449 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import org.vibur.objectpool.PoolObjectFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects latency metrics of an object pool into {@link LatencyHistogram}s: the time which the take operations
+ * waited for a permit, the time for which the objects were held (from take to restore), and the latencies of the
+ * {@link PoolObjectFactory} create, validate ({@code readyToTake}, {@code readyToRestore} and
+ * {@code readyToKeepIdle}) and destroy operations. Also counts the timed take operations which timed out,
+ * and the take operations rejected by {@link BoundedWaitersPermits}. All recording is lock-free and
+ * allocation-free. As the validate operations are called on each take and restore, only a random sample of
+ * 1 in {@value #VALIDATE_SAMPLING} of them is timed, in order to save the cost of reading the clock.
+ *
+ * <p>The metrics are collected via decorators of the pool extension points, which are to be supplied to the pool
+ * at its creation time instead of the original ones:
+ * <pre>
+ * PoolMetrics&lt;T&gt; metrics = new PoolMetrics&lt;&gt;(maxSize);
+ * PoolService&lt;T&gt; pool = new ConcurrentPool&lt;&gt;(available, metrics.factory(poolObjectFactory),
+ *         initialSize, maxSize, metrics.permits(new SemaphorePermits(maxSize, fair)), metrics.listener(listener),
+ *         minIdle, replenisher);
+ * </pre>
+ * Any of the decorators can be omitted, in which case the corresponding metrics will not be collected. The take
+ * wait time is recorded for the blocking take operations only. The take operations which wait in the waiters
+ * queue of {@link org.vibur.objectpool.ConcurrentPool}, i.e. its prioritized takes and its timed takes in the
+ * overload mode, are recorded only if they have actually entered the queue. The interrupted waits are recorded
+ * neither as waits nor as timeouts, and a timed batch take which takes fewer objects than requested is not counted
+ * as a timeout unless it takes none. The hold time is recorded only for objects restored via the pool
+ * {@code restore} operations, and only for up to {@code maxSize} objects taken at the same time, where
+ * {@code maxSize} is given at creation time; if the max size of the pool is increased afterwards, for example via
+ * {@link org.vibur.objectpool.ConcurrentPool#setMaxSize}, the excess objects are counted by {@link #untracked()}.
+ *
+ * @author agent
+ * @param <T> the type of objects held in the pool
+ */
+public class PoolMetrics<T> {
+
+    /** The validate operations are called on each take and restore, only 1 in this many of them is timed. */
+    static final int VALIDATE_SAMPLING = 8;
+
+    private final LatencyHistogram takeWait = new LatencyHistogram();
+    private final LatencyHistogram hold = new LatencyHistogram();
+    private final LatencyHistogram create = new LatencyHistogram();
+    private final LatencyHistogram validate = new LatencyHistogram();
+    private final LatencyHistogram destroy = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    private final IdentitySlots<T> taken;
+    private final AtomicLongArray takenNanos;
+    private final LongAdder untracked = new LongAdder();
+
+    /**
+     * Creates a new {@code PoolMetrics} for a pool with the given max size.
+     *
+     * @param maxSize the max size of the pool, i.e. the max number of objects which can be taken at any time
+     * @throws IllegalArgumentException if {@code maxSize < 1}
+     */
+    public PoolMetrics(int maxSize) {
+        taken = new IdentitySlots<>(maxSize);
+        takenNanos = new AtomicLongArray(taken.capacity());
+    }
+
+    /**
+     * Returns a {@link TakePermits} decorator which records the take wait times and timeouts.
+     *
+     * @param permits the permits to decorate
+     * @return see above
+     * @throws NullPointerException if {@code permits} is null
+     */
+    public TakePermits permits(TakePermits permits) {
+        return new MeteredPermits(requireNonNull(permits));
+    }
+
+    /**
+     * Returns a {@link PoolObjectFactory} decorator which records the create, validate and destroy latencies.
+     *
+     * @param poolObjectFactory the factory to decorate
+     * @return see above
+     * @throws NullPointerException if {@code poolObjectFactory} is null
+     */
+    public PoolObjectFactory<T> factory(PoolObjectFactory<T> poolObjectFactory) {
+        return new MeteredFactory(requireNonNull(poolObjectFactory));
+    }
+
+    /**
+     * Returns a {@link Listener} decorator which records the hold times of the taken objects.
+     *
+     * @param listener the listener to decorate, can be {@code null}
+     * @return see above
+     */
+    public Listener<T> listener(Listener<T> listener) {
+        return new MeteredListener(listener);
+    }
+
+    /**
+     * Returns the histogram of the times which the blocking take operations waited for a permit or in
+     * the pool waiters queue; see the class documentation for which take operations are recorded.
+     *
+     * @return see above
+     */
+    public LatencyHistogram takeWait() {
+        return takeWait;
+    }
+
+    /**
+     * Returns the histogram of the times for which the objects were held, from their take to their restore.
+     *
+     * @return see above
+     */
+    public LatencyHistogram hold() {
+        return hold;
+    }
+
+    /**
+     * Returns the histogram of the latencies of the {@link PoolObjectFactory#create()} operations.
+     *
+     * @return see above
+     */
+    public LatencyHistogram create() {
+        return create;
+    }
+
+    /**
+     * Returns the histogram of the latencies of a sample of the {@link PoolObjectFactory#readyToTake},
+     * {@link PoolObjectFactory#readyToRestore} and {@link PoolObjectFactory#readyToKeepIdle} operations.
+     *
+     * @return see above
+     */
+    public LatencyHistogram validate() {
+        return validate;
+    }
+
+    /**
+     * Returns the histogram of the latencies of the {@link PoolObjectFactory#destroy} operations.
+     *
+     * @return see above
+     */
+    public LatencyHistogram destroy() {
+        return destroy;
+    }
+
+    /**
+     * Returns the number of the timed take operations which timed out without taking an object.
+     *
+     * @return see above
+     */
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Returns the number of the take operations rejected by {@link BoundedWaitersPermits}.
+     *
+     * @return see above
+     */
+    public long rejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * Returns the number of the take operations whose objects could not be tracked, and whose hold times are not
+     * recorded, because more objects than the {@code maxSize} given at creation time were taken at the same time.
+     *
+     * @return see above
+     */
+    public long untracked() {
+        return untracked.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "takeWait: " + takeWait + "\nhold: " + hold + "\ncreate: " + create
+                + "\nvalidate: " + validate + "\ndestroy: " + destroy + "\ntimeouts: " + timeouts()
+                + "\nrejections: " + rejections() + "\nuntracked: " + untracked();
+    }
+
+    private final class MeteredPermits implements TakePermits {
+        private final TakePermits permits;
+
+        private MeteredPermits(TakePermits permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void acquire() throws InterruptedException {
+            if (tryAcquireImmediately()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                permits.acquire();
+            } catch (TooManyWaitersException e) {
+                rejections.increment();
+                throw e;
+            }
+            takeWait.recordSince(start); // neither a rejection nor an interrupted wait is recorded as a wait
+        }
+
+        @Override
+        public void acquireUninterruptibly() {
+            if (tryAcquireImmediately()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                permits.acquireUninterruptibly();
+            } catch (TooManyWaitersException e) {
+                rejections.increment();
+                throw e;
+            }
+            takeWait.recordSince(start); // a rejection is not a wait
+        }
+
+        @Override
+        public boolean tryAcquire() {
+            return permits.tryAcquire();
+        }
+
+        @Override
+        public boolean tryAcquire(int permits) {
+            return this.permits.tryAcquire(permits);
+        }
+
+        @Override
+        public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+            return tryAcquire(1, timeout, unit);
+        }
+
+        @Override
+        public boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+            if (tryAcquireImmediately(permits)) {
+                return true;
+            }
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = this.permits.tryAcquire(permits, timeout, unit);
+            } catch (TooManyWaitersException e) {
+                rejections.increment();
+                throw e;
+            }
+            // neither a rejection nor an interrupted wait is recorded as a wait or a timeout
+            takeWait.recordSince(start);
+            // a timed out batch take takes the immediately available permits, if any, and is not a timeout then
+            if (!acquired && (permits == 1 || this.permits.availablePermits() <= 0)) {
+                timeouts.increment();
+            }
+            return acquired;
+        }
+
+        /**
+         * Tries to barge in without measuring the time, if the decorated permits are not fair. The immediately
+         * acquired permits are recorded as a zero wait time.
+         */
+        private boolean tryAcquireImmediately() {
+            return tryAcquireImmediately(1);
+        }
+
+        private boolean tryAcquireImmediately(int permits) {
+            if (!this.permits.isFair() && this.permits.tryAcquire(permits)) {
+                takeWait.record(0);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void release() {
+            permits.release();
+        }
+
+        @Override
+        public void release(int permits) {
+            this.permits.release(permits);
+        }
+
+        @Override
+        public void reducePermits(int reduction) {
+            permits.reducePermits(reduction);
+        }
+
+        @Override
+        public void enterQueue() {
+            try {
+                permits.enterQueue();
+            } catch (TooManyWaitersException e) {
+                rejections.increment();
+                throw e;
+            }
+        }
+
+        @Override
+        public void exitQueue(long waitedNanos, boolean timedOut, boolean interrupted) {
+            permits.exitQueue(waitedNanos, timedOut, interrupted);
+            if (interrupted) {
+                return; // an interrupted wait is recorded neither as a wait nor as a timeout
+            }
+            takeWait.record(waitedNanos);
+            if (timedOut) {
+                timeouts.increment();
+            }
+        }
+
+        @Override
+        public int availablePermits() {
+            return permits.availablePermits();
+        }
+
+        @Override
+        public int getQueueLength() {
+            return permits.getQueueLength();
+        }
+
+        @Override
+        public boolean isFair() {
+            return permits.isFair();
+        }
+    }
+
+    private final class MeteredFactory implements PoolObjectFactory<T> {
+        private final PoolObjectFactory<T> poolObjectFactory;
+
+        private MeteredFactory(PoolObjectFactory<T> poolObjectFactory) {
+            this.poolObjectFactory = poolObjectFactory;
+        }
+
+        @Override
+        public T create() {
+            long start = System.nanoTime();
+            try {
+                return poolObjectFactory.create();
+            } finally {
+                create.recordSince(start);
+            }
+        }
+
+        @Override
+        public boolean readyToTake(T obj) {
+            if (!sampleValidation()) {
+                return poolObjectFactory.readyToTake(obj);
+            }
+            long start = System.nanoTime();
+            try {
+                return poolObjectFactory.readyToTake(obj);
+            } finally {
+                validate.recordSince(start);
+            }
+        }
+
+        @Override
+        public boolean readyToRestore(T obj) {
+            if (!sampleValidation()) {
+                return poolObjectFactory.readyToRestore(obj);
+            }
+            long start = System.nanoTime();
+            try {
+                return poolObjectFactory.readyToRestore(obj);
+            } finally {
+                validate.recordSince(start);
+            }
+        }
+
+        @Override
+        public boolean readyToKeepIdle(T obj) {
+            if (!sampleValidation()) {
+                return poolObjectFactory.readyToKeepIdle(obj);
+            }
+            long start = System.nanoTime();
+            try {
+                return poolObjectFactory.readyToKeepIdle(obj);
+            } finally {
+                validate.recordSince(start);
+            }
+        }
+
+        private boolean sampleValidation() {
+            return (ThreadLocalRandom.current().nextInt() & (VALIDATE_SAMPLING - 1)) == 0;
+        }
+
+        @Override
+        public void destroy(T obj) {
+            long start = System.nanoTime();
+            try {
+                poolObjectFactory.destroy(obj);
+            } finally {
+                destroy.recordSince(start);
+            }
+        }
+    }
+
+    private final class MeteredListener implements Listener<T> {
+        private final Listener<T> listener;
+
+        private MeteredListener(Listener<T> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onTake(T object) {
+            int index = taken.insert(object);
+            if (index >= 0) {
+                // the restoring thread reads the value after the object handoff via the pool
+                takenNanos.lazySet(index, System.nanoTime());
+            }
+            else {
+                untracked.increment();
+            }
+            if (listener != null) {
+                listener.onTake(object);
+            }
+        }
+
+        @Override
+        public void onRestore(T object) {
+            int index = taken.indexOf(object);
+            if (index >= 0) {
+                long takenAt = takenNanos.get(index);
+                if (taken.remove(index, object)) {
+                    hold.recordSince(takenAt);
+                }
+            }
+            if (listener != null) {
+                listener.onRestore(object);
+            }
+        }
+    }
+}
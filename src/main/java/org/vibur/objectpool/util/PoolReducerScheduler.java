@@ -0,0 +1,163 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A scheduler which runs the sampling and reduction of any number of pool reducers on a small shared pool of
+ * daemon threads, instead of each reducer having its own daemon thread. The pool reducers are attached to the
+ * scheduler at their creation time, for example:
+ * <pre>
+ * PoolReducerScheduler scheduler = new PoolReducerScheduler(2);
+ * for (BasePool pool : pools) {
+ *     new SamplingPoolReducer(pool, 60, TimeUnit.SECONDS, 20, scheduler).start();
+ * }
+ * </pre>
+ * Each reducer keeps its own time interval and its own {@code calculateReduction} and {@code afterReduce}
+ * hooks. The first run of each reducer is delayed by a random fraction of its sampling period, so that the
+ * reducers started at the same time are not all run on the same tick.
+ *
+ * <p>The reducers are run with a fixed delay between the end of one run and the start of the next, exactly as
+ * they are run by their own threads. Note that the reducers share the scheduler threads; a long running
+ * reduction of one pool may delay the runs of the other pools by up to its duration. An exception thrown by
+ * a reducer is reported to the uncaught exception handler of the scheduler thread, and terminates only that
+ * reducer.
+ *
+ * @author agent
+ */
+public class PoolReducerScheduler {
+
+    private static final AtomicInteger schedulers = new AtomicInteger();
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Set<ScheduledFuture<?>> scheduled =
+            Collections.newSetFromMap(new ConcurrentHashMap<ScheduledFuture<?>, Boolean>());
+
+    /**
+     * Creates a new {@code PoolReducerScheduler} with the given number of daemon threads. The threads are
+     * started lazily when the first pool reducers are started.
+     *
+     * @param threads the number of threads on which the pool reducers will be run
+     * @throws IllegalArgumentException if {@code threads < 1}
+     */
+    public PoolReducerScheduler(int threads) {
+        forbidIllegalArgument(threads < 1, String.format("threads %s should be >= 1", threads));
+
+        final String namePrefix = "vibur-pool-reducer-scheduler-" + schedulers.incrementAndGet() + "-";
+        this.executor = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, namePrefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MAX_PRIORITY - 2);
+                return thread;
+            }
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Schedules the given task to be run repeatedly with the given delay between its runs; the first run
+     * is delayed by a random time between zero and the given delay. If the task throws an exception, the exception
+     * is reported to the uncaught exception handler of the running thread, and the task is not run again, exactly
+     * as a reducer which runs on its own thread terminates.
+     */
+    ScheduledFuture<?> schedule(final Runnable task, long delayNanos) {
+        long initialDelay = ThreadLocalRandom.current().nextLong(delayNanos) + 1;
+        final AtomicReference<ScheduledFuture<?>> self = new AtomicReference<>();
+        ScheduledFuture<?> future = executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } catch (Throwable t) { // equivalent to catching "RuntimeException | Error", however, better for Kotlin interoperability
+                    ScheduledFuture<?> future = self.get();
+                    if (future != null) {
+                        scheduled.remove(future);
+                    }
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+                    throw t; // the scheduled future swallows the exception, but does not run the task again
+                }
+            }
+        }, initialDelay, delayNanos, NANOSECONDS);
+        self.set(future);
+        scheduled.add(future);
+        return future;
+    }
+
+    /**
+     * Cancels the given scheduled task, which is removed from both this scheduler and its executor queue.
+     */
+    void cancel(ScheduledFuture<?> future) {
+        future.cancel(false);
+        scheduled.remove(future);
+    }
+
+    /**
+     * Returns the number of pool reducers currently scheduled for running by this scheduler.
+     *
+     * @return see above
+     */
+    public int scheduled() {
+        int count = 0;
+        for (Iterator<ScheduledFuture<?>> i = scheduled.iterator(); i.hasNext(); ) {
+            if (i.next().isDone()) {
+                i.remove(); // the reducer has been terminated
+            } else {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Terminates this scheduler, which terminates all pool reducers attached to it. Once terminated the scheduler
+     * cannot be more revived.
+     */
+    public void terminate() {
+        executor.shutdownNow();
+        for (ScheduledFuture<?> future : scheduled) {
+            future.cancel(false);
+        }
+        scheduled.clear();
+    }
+
+    /**
+     * Returns {@code true} if this scheduler has been terminated.
+     *
+     * @return see above
+     */
+    public boolean isTerminated() {
+        return executor.isShutdown();
+    }
+}
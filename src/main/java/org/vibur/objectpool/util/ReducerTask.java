@@ -0,0 +1,116 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Runs a pool reducer periodically, either on its own daemon thread or, if a {@link PoolReducerScheduler}
+ * is given, on the threads of that scheduler. If the reducer uses the {@link CoarseClock}, the clock is kept
+ * running from the start until the termination of the reducer.
+ *
+ * @author agent
+ */
+final class ReducerTask implements Runnable {
+
+    private final Runnable reducer;
+    private final long sleepNanoTime;
+    private final PoolReducerScheduler scheduler;
+    private final boolean usesClock;
+
+    private final Thread reducerThread;
+    private volatile ScheduledFuture<?> scheduled = null;
+    private final AtomicBoolean clockStarted = new AtomicBoolean(false);
+
+    ReducerTask(Runnable reducer, long sleepNanoTime, PoolReducerScheduler scheduler) {
+        this(reducer, sleepNanoTime, scheduler, false);
+    }
+
+    ReducerTask(Runnable reducer, long sleepNanoTime, PoolReducerScheduler scheduler, boolean usesClock) {
+        this.reducer = reducer;
+        this.sleepNanoTime = sleepNanoTime;
+        this.scheduler = scheduler;
+        this.usesClock = usesClock;
+        this.reducerThread = scheduler == null ? new Thread(this) : null;
+    }
+
+    void start(String threadName) {
+        if (usesClock && clockStarted.compareAndSet(false, true)) {
+            CoarseClock.start();
+        }
+        if (reducerThread != null) {
+            reducerThread.setName(threadName);
+            reducerThread.setDaemon(true);
+            reducerThread.setPriority(Thread.MAX_PRIORITY - 2);
+            reducerThread.start();
+            return;
+        }
+
+        if (scheduled != null) {
+            throw new IllegalThreadStateException();
+        }
+        scheduled = scheduler.schedule(reducer, sleepNanoTime);
+    }
+
+    String getThreadName() {
+        return reducerThread != null ? reducerThread.getName() : null;
+    }
+
+    @Override
+    public void run() {
+        for (;;) {
+            try {
+                NANOSECONDS.sleep(sleepNanoTime);
+                reducer.run();
+            } catch (InterruptedException ignored) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the state of the reducer thread. A scheduled reducer is reported as {@code NEW} until started,
+     * as {@code TIMED_WAITING} while scheduled, and as {@code TERMINATED} when it or its scheduler are terminated.
+     */
+    Thread.State getState() {
+        if (reducerThread != null) {
+            return reducerThread.getState();
+        }
+        ScheduledFuture<?> scheduled = this.scheduled;
+        if (scheduled == null) {
+            return Thread.State.NEW;
+        }
+        return scheduled.isDone() || scheduler.isTerminated() ? Thread.State.TERMINATED : Thread.State.TIMED_WAITING;
+    }
+
+    void terminate() {
+        if (clockStarted.compareAndSet(true, false)) {
+            CoarseClock.stop();
+        }
+        if (reducerThread != null) {
+            reducerThread.interrupt();
+            return;
+        }
+        ScheduledFuture<?> scheduled = this.scheduled;
+        if (scheduled != null) {
+            scheduler.cancel(scheduled);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import org.vibur.objectpool.PoolObjectFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A {@link PoolObjectFactory} decorator which retires the pooled objects that have exceeded a maximum lifetime
+ * or a maximum number of uses. A retired object is reported as not ready from {@link #readyToRestore} or
+ * {@link #readyToKeepIdle}, upon which the pool destroys it and decrements its {@code createdTotal} exactly as for
+ * any other invalid object. The objects are never retired by {@link #readyToTake}, so that the take operations
+ * do not need to create replacements of the retired objects.
+ *
+ * <p>The lifetime of each object is shortened by a random jitter between zero and {@code lifetimeJitter}, chosen
+ * when the object is created, so that the objects created at the same time, for example, at the pool startup,
+ * are not all retired at once. The lifetimes are measured via the {@link CoarseClock}; the uses are counted
+ * by the {@code readyToRestore} calls. The creation times and the uses are kept in an {@link IdentitySlots} set
+ * and preallocated arrays; hence, no allocations are made by the restore operations. The objects with which the
+ * pool was pre-initialized are tracked from their first restore or idle validation. If more objects than the
+ * given {@code maxSize} exist at the same time, for example, after the max size of the pool has been increased via
+ * {@link org.vibur.objectpool.ConcurrentPool#setMaxSize}, the objects which cannot be tracked are retired on their
+ * restore or idle validation, so that no object outlives the configured limits.
+ *
+ * <p>The objects which exceed their lifetime while taken, or reach their max uses, are retired when they are
+ * restored. The objects which exceed their lifetime while idle in the pool are retired when validated via
+ * {@link org.vibur.objectpool.BasePool#validateIdle}, which creates their replacements on the validating thread;
+ * without a background validation, they are retired on their next restore. The replacements of the objects
+ * retired on restore are created in the background if the pool is configured with a {@code minIdle} number and
+ * a replenisher {@code Executor}, and lazily by the take operations otherwise. Hence, the recommended setup is:
+ * <pre>
+ * PoolService&lt;T&gt; pool = new ConcurrentPool&lt;&gt;(available,
+ *         new RetiringObjectFactory&lt;&gt;(poolObjectFactory, maxSize, 30, 1, TimeUnit.MINUTES, 0),
+ *         initialSize, maxSize, fair, listener, minIdle, replenisher);
+ * new IdleValidator(pool, 10, 10, TimeUnit.SECONDS).start();
+ * </pre>
+ *
+ * @author agent
+ * @param <T> the type of objects held in the pool
+ */
+public class RetiringObjectFactory<T> implements PoolObjectFactory<T> {
+
+    private final PoolObjectFactory<T> poolObjectFactory;
+
+    private final long maxLifetimeNanos;
+    private final long lifetimeJitterNanos;
+    private final int maxUses;
+
+    private final IdentitySlots<T> slots;
+    private final AtomicLongArray deadlines;
+    private final AtomicIntegerArray uses;
+
+    private final LongAdder retired = new LongAdder();
+
+    /**
+     * Creates a new {@code RetiringObjectFactory} which decorates the given factory.
+     *
+     * @param poolObjectFactory the factory to decorate
+     * @param maxSize           the max size of the pool, i.e. the max number of objects which can exist at any time
+     * @param maxLifetime       the max time for which an object can exist since its creation; {@code 0} means
+     *                          no limit
+     * @param lifetimeJitter    the max random amount by which the {@code maxLifetime} of each object is shortened
+     * @param unit              the time unit of the {@code maxLifetime} and {@code lifetimeJitter} arguments
+     * @param maxUses           the max number of times an object can be taken and restored; {@code 0} means
+     *                          no limit
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code maxSize < 1 || maxLifetime < 0 || lifetimeJitter < 0 || lifetimeJitter > maxLifetime
+     *         || maxUses < 0}
+     * @throws NullPointerException if {@code poolObjectFactory} or {@code unit} are null
+     */
+    public RetiringObjectFactory(PoolObjectFactory<T> poolObjectFactory, int maxSize,
+                                 long maxLifetime, long lifetimeJitter, TimeUnit unit, int maxUses) {
+        forbidIllegalArgument(maxLifetime < 0, String.format("maxLifetime %s should be >= 0", maxLifetime));
+        forbidIllegalArgument(lifetimeJitter < 0 || lifetimeJitter > maxLifetime, String.format(
+                "lifetimeJitter %s should be between 0 and %s", lifetimeJitter, maxLifetime));
+        forbidIllegalArgument(maxUses < 0, String.format("maxUses %s should be >= 0", maxUses));
+
+        this.poolObjectFactory = requireNonNull(poolObjectFactory);
+        this.maxLifetimeNanos = unit.toNanos(maxLifetime);
+        this.lifetimeJitterNanos = unit.toNanos(lifetimeJitter);
+        this.maxUses = maxUses;
+
+        this.slots = new IdentitySlots<>(maxSize);
+        this.deadlines = new AtomicLongArray(slots.capacity());
+        this.uses = new AtomicIntegerArray(slots.capacity());
+    }
+
+    @Override
+    public T create() {
+        T object = poolObjectFactory.create();
+        if (object != null) {
+            track(object);
+        }
+        return object;
+    }
+
+    @Override
+    public boolean readyToTake(T obj) {
+        return poolObjectFactory.readyToTake(obj);
+    }
+
+    @Override
+    public boolean readyToRestore(T obj) {
+        int index = indexOf(obj);
+        if (index >= 0 ? shouldRetire(index) : hasLimits()) {
+            retired.increment();
+            return false;
+        }
+        return poolObjectFactory.readyToRestore(obj);
+    }
+
+    @Override
+    public boolean readyToKeepIdle(T obj) {
+        int index = indexOf(obj);
+        if (index >= 0 ? isPastDeadline(index) : hasLimits()) {
+            retired.increment();
+            return false;
+        }
+        return poolObjectFactory.readyToKeepIdle(obj);
+    }
+
+    @Override
+    public void destroy(T obj) {
+        slots.remove(obj);
+        poolObjectFactory.destroy(obj);
+    }
+
+    /**
+     * Returns the number of objects which have been retired because of exceeding their lifetime or max uses.
+     *
+     * @return see above
+     */
+    public long retired() {
+        return retired.sum();
+    }
+
+    /**
+     * Returns the slot index of the given object, and starts tracking the object if it is not tracked yet, e.g.,
+     * an object with which the pool was pre-initialized. Returns {@code -1} if the object cannot be tracked.
+     */
+    private int indexOf(T object) {
+        int index = slots.indexOf(object);
+        return index >= 0 ? index : track(object);
+    }
+
+    private int track(T object) {
+        int index = slots.insert(object);
+        if (index >= 0) {
+            long lifetime = maxLifetimeNanos - (lifetimeJitterNanos > 0
+                    ? ThreadLocalRandom.current().nextLong(lifetimeJitterNanos + 1) : 0L);
+            deadlines.set(index, CoarseClock.nanoTime() + lifetime);
+            uses.set(index, 0);
+        }
+        return index;
+    }
+
+    private boolean shouldRetire(int index) {
+        return (maxUses > 0 && uses.incrementAndGet(index) >= maxUses) || isPastDeadline(index);
+    }
+
+    private boolean hasLimits() {
+        return maxLifetimeNanos > 0 || maxUses > 0;
+    }
+
+    private boolean isPastDeadline(int index) {
+        return maxLifetimeNanos > 0 && CoarseClock.nanoTime() - deadlines.get(index) >= 0;
+    }
+}
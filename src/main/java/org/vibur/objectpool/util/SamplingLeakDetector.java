@@ -0,0 +1,257 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A {@link Listener} which tracks a random sample of the objects taken from the pool, and periodically reports
+ * the tracked objects which have been held (not restored) for longer than a given threshold as potential leaks.
+ * For each sampled take, the detector records the taking thread, the time of the take, and optionally the stack
+ * trace of the take. Unlike {@link TakenListener}, which tracks all taken objects, the cost of this detector for
+ * the takes which are not sampled is a single random number generation, and for the restores of objects which
+ * are not tracked it is a short lookup in a preallocated {@link IdentitySlots} set; thus, this detector is
+ * suitable for production use.
+ *
+ * <p>This detector creates one daemon service thread which will be started when the detector's {@link #start()}
+ * method is called, and will be alive until the {@link #terminate()} method is called or until the calling
+ * application exits; alternatively, if a {@link PoolReducerScheduler} is supplied at the detector's creation time,
+ * the detector will be run on the threads shared by all pool reducers attached to that scheduler. The detector can
+ * be also used without starting it, by calling {@link #sweep()} periodically. Each potential leak is reported only
+ * once via the overridable {@link #reportLeak} method hook, which by default passes it to the {@link LeakReporter}
+ * supplied at the detector's creation time, if any.
+ *
+ * @author agent
+ * @param <T> the type of objects held in the pool
+ */
+public class SamplingLeakDetector<T> implements Listener<T> {
+
+    private static final int MAX_TRACKED = 1 << 16;
+
+    private final int sampleMask;
+    private final boolean captureStackTraces;
+    private final long leakThresholdNanos;
+
+    private final IdentitySlots<T> tracked;
+    private final AtomicReferenceArray<TakeRecord> records;
+    private final AtomicInteger trackedCount = new AtomicInteger();
+
+    private final LeakReporter<T> reporter;
+    private final ReducerTask sweeperTask;
+
+    /**
+     * Creates a new {@code SamplingLeakDetector} without a {@link LeakReporter}; the potential leaks are reported
+     * only to the {@link #reportLeak} method hook. The created detector is not started and needs to be explicitly
+     * started via calling the {@link #start()} method.
+     *
+     * @param maxSize the max size of the pool, i.e. the max number of objects which can be taken at any time
+     * @param sampleRate one in how many takes will be tracked; rounded up to a power of 2
+     * @param captureStackTraces if {@code true}, the stack traces of the sampled takes will be captured
+     * @param leakThreshold the time after which a taken object is considered a potential leak; this is also
+     *                      the interval between the sweeps
+     * @param unit the time unit of the {@code leakThreshold} argument
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code maxSize < 1 || sampleRate < 1 || sampleRate > 1 << 30 || leakThreshold <= 0}
+     */
+    public SamplingLeakDetector(int maxSize, int sampleRate, boolean captureStackTraces,
+                                long leakThreshold, TimeUnit unit) {
+        this(maxSize, sampleRate, captureStackTraces, leakThreshold, unit, null, null);
+    }
+
+    /**
+     * Creates a new {@code SamplingLeakDetector} which reports the potential leaks to the given {@code reporter},
+     * and which will be run on the threads of the given {@code scheduler}. The created detector is not started
+     * and needs to be explicitly started via calling the {@link #start()} method.
+     *
+     * @param maxSize the max size of the pool, i.e. the max number of objects which can be taken at any time
+     * @param sampleRate one in how many takes will be tracked; rounded up to a power of 2
+     * @param captureStackTraces if {@code true}, the stack traces of the sampled takes will be captured
+     * @param leakThreshold the time after which a taken object is considered a potential leak; this is also
+     *                      the interval between the sweeps
+     * @param unit the time unit of the {@code leakThreshold} argument
+     * @param reporter if not {@code null}, the reporter to which the potential leaks will be reported
+     * @param scheduler if not {@code null}, the scheduler on which this detector will be run;
+     *                  otherwise the detector will create its own daemon thread
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code maxSize < 1 || sampleRate < 1 || sampleRate > 1 << 30 || leakThreshold <= 0}
+     */
+    public SamplingLeakDetector(int maxSize, int sampleRate, boolean captureStackTraces,
+                                long leakThreshold, TimeUnit unit,
+                                LeakReporter<T> reporter, PoolReducerScheduler scheduler) {
+        forbidIllegalArgument(maxSize < 1, String.format("maxSize %s should be >= 1", maxSize));
+        forbidIllegalArgument(sampleRate < 1 || sampleRate > 1 << 30,
+                String.format("sampleRate %s should be between 1 and %s", sampleRate, 1 << 30));
+        forbidIllegalArgument(leakThreshold <= 0, String.format("leakThreshold %s should be > 0", leakThreshold));
+
+        this.sampleMask = sampleRate == 1 ? 0 : Integer.highestOneBit(sampleRate - 1) * 2 - 1;
+        this.captureStackTraces = captureStackTraces;
+        this.leakThresholdNanos = unit.toNanos(leakThreshold);
+
+        this.tracked = new IdentitySlots<>(Math.min(maxSize, MAX_TRACKED));
+        this.records = new AtomicReferenceArray<>(tracked.capacity());
+
+        this.reporter = reporter;
+        this.sweeperTask = new ReducerTask(new SweeperRunnable(), leakThresholdNanos, scheduler);
+    }
+
+    @Override
+    public void onTake(T object) {
+        if ((ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return;
+        }
+        int index = tracked.insert(object);
+        if (index >= 0) {
+            Thread thread = Thread.currentThread();
+            records.set(index, new TakeRecord(thread.getName(), System.nanoTime(),
+                    captureStackTraces ? new Throwable("Object taken by thread " + thread.getName()) : null));
+            trackedCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onRestore(T object) {
+        if (trackedCount.get() == 0) {
+            return;
+        }
+        int index = tracked.indexOf(object);
+        if (index >= 0) {
+            records.set(index, null);
+            if (tracked.remove(index, object)) {
+                trackedCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Reports the tracked objects which have been held for longer than the leak threshold and which have not
+     * been reported before.
+     *
+     * @return the number of the newly reported objects
+     */
+    public int sweep() {
+        int reported = 0;
+        long now = System.nanoTime();
+        for (int i = 0; i < records.length(); i++) {
+            TakeRecord record = records.get(i);
+            if (record == null || record.reported || now - record.takenNanos < leakThresholdNanos) {
+                continue;
+            }
+            T object = tracked.get(i);
+            if (object != null && records.get(i) == record) {
+                record.reported = true;
+                reportLeak(object, now - record.takenNanos, record.threadName, record.stackTrace);
+                reported++;
+            }
+        }
+        return reported;
+    }
+
+    /**
+     * Returns the number of the currently tracked taken objects.
+     *
+     * @return see above
+     */
+    public int tracked() {
+        return trackedCount.get();
+    }
+
+    /**
+     * A potential leak reporting hook. The default implementation passes the potential leak to the
+     * {@link LeakReporter} of this detector, if any, and otherwise does nothing. Note that if this method
+     * throws an exception when called from the detector's thread, this will terminate the detector.
+     *
+     * @param object the object which has been held for longer than the leak threshold
+     * @param heldNanos the time for which the object has been held, in nanoseconds
+     * @param threadName the name of the thread which took the object
+     * @param stackTrace the stack trace of the take, or {@code null} if the stack traces are not captured
+     */
+    protected void reportLeak(T object, long heldNanos, String threadName, Throwable stackTrace) {
+        if (reporter != null) {
+            reporter.reportLeak(object, heldNanos, threadName, stackTrace);
+        }
+    }
+
+    /**
+     * Starts this detector, which starts its underlying daemon thread, or schedules it on its scheduler.
+     *
+     * @exception IllegalThreadStateException if this detector is started more then once
+     */
+    public void start() {
+        sweeperTask.start(getThreadName());
+    }
+
+    protected String getThreadName() {
+        return sweeperTask.getThreadName();
+    }
+
+    /**
+     * Returns the state of the underlying thread.
+     */
+    public Thread.State getState() {
+        return sweeperTask.getState();
+    }
+
+    /**
+     * Terminates this detector, which terminates its underlying daemon thread or cancels its scheduling.
+     * Once terminated the detector cannot be more revived.
+     */
+    public void terminate() {
+        sweeperTask.terminate();
+    }
+
+    /**
+     * A receiver of the potential leaks found by a {@link SamplingLeakDetector}, for example, one which logs them.
+     *
+     * @param <T> the type of objects held in the pool
+     */
+    public interface LeakReporter<T> {
+
+        /**
+         * Reports a potential leak.
+         *
+         * @param object the object which has been held for longer than the leak threshold
+         * @param heldNanos the time for which the object has been held, in nanoseconds
+         * @param threadName the name of the thread which took the object
+         * @param stackTrace the stack trace of the take, or {@code null} if the stack traces are not captured
+         */
+        void reportLeak(T object, long heldNanos, String threadName, Throwable stackTrace);
+    }
+
+    private class SweeperRunnable implements Runnable {
+        @Override
+        public void run() {
+            sweep();
+        }
+    }
+
+    private static final class TakeRecord {
+        private final String threadName;
+        private final long takenNanos;
+        private final Throwable stackTrace;
+        private volatile boolean reported = false;
+
+        private TakeRecord(String threadName, long takenNanos, Throwable stackTrace) {
+            this.threadName = threadName;
+            this.takenNanos = takenNanos;
+            this.stackTrace = stackTrace;
+        }
+    }
+}
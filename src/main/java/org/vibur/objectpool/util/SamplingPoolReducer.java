@@ -21,7 +21,6 @@ import org.vibur.objectpool.BasePool;
 import java.util.concurrent.TimeUnit;
 
 import static java.util.Objects.requireNonNull;
-import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
 
 /**
@@ -35,6 +34,8 @@ import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument
  * <p>This pool reducer creates one daemon service thread which will be started when
  * the reducer's {@link #start()} method is called, and will be alive until the
  * {@link #terminate()} method is called or until the calling application exits.
+ * Alternatively, if a {@link PoolReducerScheduler} is supplied at the reducer's creation
+ * time, the reducer will be run on the threads shared by all reducers attached to that scheduler.
  *
  * <p>Note that if an exception is thrown by the overridable
  * {@link #afterReduce(int, int, Throwable)} method hook, it will terminate the
@@ -48,10 +49,11 @@ public class SamplingPoolReducer implements ThreadedPoolReducer {
     private final long sleepNanoTime;
     private final int samples;
 
-    private final Thread reducerThread;
+    private final ReducerTask reducerTask;
 
     protected static final double MAX_REDUCTION_FRACTION = 0.2;
     protected int minRemainingCreated;
+    private int sample;
 
     /**
      * Creates a new {@link SamplingPoolReducer} with the given {@link BasePool} and
@@ -72,6 +74,32 @@ public class SamplingPoolReducer implements ThreadedPoolReducer {
      *         {@code pool == null || unit == null}
      */
     public SamplingPoolReducer(BasePool pool, long timeInterval, TimeUnit unit, int samples) {
+        this(pool, timeInterval, unit, samples, null);
+    }
+
+    /**
+     * Creates a new {@link SamplingPoolReducer} with the given {@link BasePool} and
+     * {@code timeInterval} settings, which will be run on the threads of the given {@code scheduler}.
+     * The created pool reducer is not started and needs to be explicitly started via calling
+     * the {@link #start()} method.
+     *
+     * @param pool the pool that is to be reduced if necessary
+     * @param timeInterval the time period after which the {@link SamplingPoolReducer} will try to
+     *                     possibly reduce the number of created but unused objects in the
+     *                     given {@code pool}
+     * @param unit the time unit of the {@code timeInterval} argument
+     * @param samples how many times the {@link SamplingPoolReducer} will wake up during the given
+     *                {@code timeInterval} period in order to sample various information from
+     *                the given {@code pool}
+     * @param scheduler if not {@code null}, the scheduler on which this pool reducer will be run;
+     *                  otherwise the pool reducer will create its own daemon thread
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code timeInterval <= 0 || samples <= 0}
+     * @throws NullPointerException if one of the following holds:<br>
+     *         {@code pool == null || unit == null}
+     */
+    public SamplingPoolReducer(BasePool pool, long timeInterval, TimeUnit unit, int samples,
+                               PoolReducerScheduler scheduler) {
         forbidIllegalArgument(timeInterval <= 0, String.format("timeInterval %s should be > 0", timeInterval));
         forbidIllegalArgument(samples <= 0, String.format("samples %s should be > 0", samples));
 
@@ -81,38 +109,28 @@ public class SamplingPoolReducer implements ThreadedPoolReducer {
         this.pool = requireNonNull(pool);
         this.samples = samples;
 
-        this.reducerThread = new Thread(new PoolReducerRunnable());
+        this.reducerTask = new ReducerTask(new PoolReducerRunnable(), sleepNanoTime, scheduler);
     }
 
     @Override
     public void start() {
-        reducerThread.setName(getThreadName());
-        reducerThread.setDaemon(true);
-        reducerThread.setPriority(Thread.MAX_PRIORITY - 2);
-        reducerThread.start();
+        sample = 1;
+        minRemainingCreated = Integer.MAX_VALUE;
+        reducerTask.start(getThreadName());
     }
 
     protected String getThreadName() {
-        return reducerThread.getName();
+        return reducerTask.getThreadName();
     }
 
     private class PoolReducerRunnable implements Runnable {
         @Override
         public void run() {
-            int sample = 1;
-            minRemainingCreated = Integer.MAX_VALUE;
-            for (;;) {
-                try {
-                    NANOSECONDS.sleep(sleepNanoTime);
-                    samplePool();
-                    if (sample++ % samples == 0) {
-                        reducePool();
-                        sample = 1;
-                        minRemainingCreated = Integer.MAX_VALUE;
-                    }
-                } catch (InterruptedException ignored) {
-                    break;
-                }
+            samplePool();
+            if (sample++ % samples == 0) {
+                reducePool();
+                sample = 1;
+                minRemainingCreated = Integer.MAX_VALUE;
             }
         }
     }
@@ -140,14 +158,16 @@ public class SamplingPoolReducer implements ThreadedPoolReducer {
      * Calculates the number of currently allocated on the pool elements that needs to be destroyed/deallocated,
      * as a result of the stats collected during the just finished observational time period.
      * The number of remaining allocated on the pool objects will <b>not</b> fall below the pool {@code initial}
-     * size as a result of this reduction.
+     * size as a result of this reduction, and the minimum number of available objects observed during the
+     * period will <b>not</b> fall below the pool {@code minIdle}, so that the reductions do not oscillate
+     * against the pool replenishing.
      *
      * @return the calculated reduction number
      */
     protected int calculateReduction() {
         int createdTotal = pool.createdTotal();
         int maxReduction = (int) Math.ceil(createdTotal * MAX_REDUCTION_FRACTION);
-        int reduction = Math.min(minRemainingCreated, maxReduction);
+        int reduction = Math.min(minRemainingCreated - pool.minIdle(), maxReduction);
         int bottomThreshold = createdTotal - pool.initialSize();
         reduction = Math.min(reduction, bottomThreshold);
         return Math.max(reduction, 0);
@@ -170,11 +190,11 @@ public class SamplingPoolReducer implements ThreadedPoolReducer {
 
     @Override
     public Thread.State getState() {
-        return reducerThread.getState();
+        return reducerTask.getState();
     }
 
     @Override
     public void terminate() {
-        reducerThread.interrupt();
+        reducerTask.terminate();
     }
 }
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Semaphore} based implementation of {@link TakePermits}.
+ *
+ * @author agent
+ */
+public class SemaphorePermits implements TakePermits {
+
+    private final ReducibleSemaphore semaphore;
+
+    public SemaphorePermits(int permits, boolean fair) {
+        semaphore = new ReducibleSemaphore(permits, fair);
+    }
+
+    @Override
+    public void acquire() throws InterruptedException {
+        semaphore.acquire();
+    }
+
+    @Override
+    public void acquireUninterruptibly() {
+        semaphore.acquireUninterruptibly();
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return semaphore.tryAcquire();
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        return semaphore.tryAcquire(permits);
+    }
+
+    @Override
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        return semaphore.tryAcquire(timeout, unit);
+    }
+
+    @Override
+    public boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+        return semaphore.tryAcquire(permits, timeout, unit);
+    }
+
+    @Override
+    public void release() {
+        semaphore.release();
+    }
+
+    @Override
+    public void release(int permits) {
+        semaphore.release(permits);
+    }
+
+    @Override
+    public void reducePermits(int reduction) {
+        semaphore.reducePermits(reduction);
+    }
+
+    @Override
+    public void enterQueue() {
+        // nothing to do
+    }
+
+    @Override
+    public void exitQueue(long waitedNanos, boolean timedOut, boolean interrupted) {
+        // nothing to do
+    }
+
+    @Override
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    @Override
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+
+    @Override
+    public boolean isFair() {
+        return semaphore.isFair();
+    }
+
+    private static final class ReducibleSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        private ReducibleSemaphore(int permits, boolean fair) {
+            super(permits, fair);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) { // makes it accessible to the enclosing class
+            super.reducePermits(reduction);
+        }
+    }
+}
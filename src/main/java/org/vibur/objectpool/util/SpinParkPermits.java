@@ -0,0 +1,268 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A lock-free implementation of {@link TakePermits} which keeps the number of available permits in an
+ * {@link AtomicInteger}. An acquiring thread first tries to obtain the permits via a CAS operation, then spins
+ * for a bounded number of iterations waiting for a permit to be released, and only after that enqueues itself in
+ * a {@link ConcurrentLinkedQueue} of waiters and parks. This avoids the park/unpark context switches when the pool
+ * objects are restored within microseconds. The spin limit adapts to the observed success of the spinning: it is
+ * doubled when a permit is obtained while spinning, and halved otherwise. No spinning is done on a single CPU
+ * machine, nor by virtual threads, which are parked right away as their spinning would occupy a carrier thread.
+ * The waiting path does not use {@code synchronized} and thus does not pin the virtual threads to their carriers.
+ *
+ * <p>In fair mode, a thread will not obtain a permit while other threads are waiting, and the permits are granted
+ * to the waiting threads in the order of their arrival; the untimed {@link #tryAcquire()} methods barge in the same
+ * way as the {@link java.util.concurrent.Semaphore} ones do. In non-fair mode, any thread may obtain a permit.
+ *
+ * @author agent
+ */
+public class SpinParkPermits implements TakePermits {
+
+    private static final int MAX_SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 10 : 0;
+    private static final int MIN_SPINS = MAX_SPINS >>> 4;
+
+    private final AtomicInteger permits;
+    private final boolean fair;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private volatile int spins = MAX_SPINS;
+
+    /**
+     * Creates a new {@code SpinParkPermits} with the given number of permits and fairness setting.
+     *
+     * @param permits the initial number of permits available
+     * @param fair {@code true} if the permits should be granted to the waiting threads in the order of their arrival
+     * @throws IllegalArgumentException if {@code permits < 0}
+     */
+    public SpinParkPermits(int permits, boolean fair) {
+        forbidIllegalArgument(permits < 0, String.format("permits %s should be >= 0", permits));
+        this.permits = new AtomicInteger(permits);
+        this.fair = fair;
+    }
+
+    @Override
+    public void acquire() throws InterruptedException {
+        doAcquire(1, false, 0L, true);
+    }
+
+    @Override
+    public void acquireUninterruptibly() {
+        try {
+            doAcquire(1, false, 0L, false);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e); // never thrown when not interruptible
+        }
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return tryAcquireShared(1);
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        checkPermits(permits);
+        return tryAcquireShared(permits);
+    }
+
+    @Override
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        return doAcquire(1, true, unit.toNanos(timeout), true);
+    }
+
+    @Override
+    public boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+        checkPermits(permits);
+        return doAcquire(permits, true, unit.toNanos(timeout), true);
+    }
+
+    @Override
+    public void release() {
+        release(1);
+    }
+
+    @Override
+    public void release(int permits) {
+        checkPermits(permits);
+        this.permits.addAndGet(permits);
+        signalFirst();
+    }
+
+    @Override
+    public void reducePermits(int reduction) {
+        checkPermits(reduction);
+        permits.addAndGet(-reduction);
+    }
+
+    @Override
+    public void enterQueue() {
+        // nothing to do
+    }
+
+    @Override
+    public void exitQueue(long waitedNanos, boolean timedOut, boolean interrupted) {
+        // nothing to do
+    }
+
+    @Override
+    public int availablePermits() {
+        return permits.get();
+    }
+
+    @Override
+    public int getQueueLength() {
+        return waiters.size();
+    }
+
+    @Override
+    public boolean isFair() {
+        return fair;
+    }
+
+    private static void checkPermits(int permits) {
+        if (permits < 0) { // avoids the formatting of the message on the hot path
+            forbidIllegalArgument(true, String.format("permits %s should be >= 0", permits));
+        }
+    }
+
+    private boolean doAcquire(int n, boolean timed, long nanos, boolean interruptible) throws InterruptedException {
+        if (interruptible && Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        boolean mayBarge = !fair || waiters.isEmpty();
+        if (mayBarge && tryAcquireShared(n)) {
+            return true;
+        }
+        if (timed && nanos <= 0) {
+            return false;
+        }
+
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        if (mayBarge && !ThreadSupport.isVirtual(Thread.currentThread()) && spin(n)) {
+            return true;
+        }
+        return park(n, timed, deadline, interruptible);
+    }
+
+    private boolean tryAcquireShared(int n) {
+        for (;;) {
+            int available = permits.get();
+            if (available < n) {
+                return false;
+            }
+            if (permits.compareAndSet(available, available - n)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean spin(int n) {
+        int limit = spins;
+        for (int i = 0; i < limit; i++) {
+            if (permits.get() >= n && tryAcquireShared(n)) {
+                if (limit < MAX_SPINS) {
+                    spins = limit << 1;
+                }
+                return true;
+            }
+            ThreadSupport.onSpinWait();
+        }
+        if (limit > MIN_SPINS) {
+            spins = limit >>> 1;
+        }
+        return false;
+    }
+
+    private boolean park(int n, boolean timed, long deadline, boolean interruptible) throws InterruptedException {
+        Waiter waiter = new Waiter(Thread.currentThread());
+        waiters.add(waiter);
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                if ((!fair || waiters.peek() == waiter) && tryAcquireShared(n)) {
+                    return true;
+                }
+                if (!fair && permits.get() > 0) {
+                    signalNext(waiter); // not enough permits for this waiter, but may be enough for the next one
+                }
+
+                if (timed) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+                else {
+                    LockSupport.park(this);
+                }
+
+                if (Thread.interrupted()) {
+                    if (interruptible) {
+                        throw new InterruptedException();
+                    }
+                    interrupted = true;
+                }
+            }
+        } finally {
+            waiters.remove(waiter);
+            if (permits.get() > 0) {
+                signalFirst(); // passes on a wake-up which might have been intended for this waiter
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void signalFirst() {
+        Waiter first = waiters.peek();
+        if (first != null) {
+            LockSupport.unpark(first.thread);
+        }
+    }
+
+    private void signalNext(Waiter waiter) {
+        for (Iterator<Waiter> i = waiters.iterator(); i.hasNext(); ) {
+            if (i.next() == waiter) {
+                if (i.hasNext()) {
+                    LockSupport.unpark(i.next().thread);
+                }
+                return;
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final Thread thread;
+
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
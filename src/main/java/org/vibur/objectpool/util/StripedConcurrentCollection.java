@@ -0,0 +1,169 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.vibur.objectpool.util.ArgumentValidation.forbidIllegalArgument;
+
+/**
+ * A striped implementation of {@link ConcurrentCollection} which consists of a number of independent LIFO stripes,
+ * each of them backed by a {@link ConcurrentLinkedDeque}. The calling threads are assigned to a home stripe based on
+ * a hash of their thread id, which spreads the {@link #offerFirst} and {@link #pollFirst} operations of different
+ * threads across different stripes instead of having all of them contend on a single head.
+ *
+ * <p>The {@code pollFirst} operation polls the head of the calling thread's home stripe first, and if it is empty
+ * steals from the tails (the cold ends) of the other stripes. The {@link #offerLast} operation distributes the
+ * objects across the stripes in a round-robin fashion. The {@link #pollLast} operation, which is used by the pool
+ * reductions, polls the tail of the largest stripe, as the least used objects accumulate in the stripes with the
+ * least demand; this makes it an approximation of polling the coldest object across all stripes.
+ *
+ * <p>The sizes of the stripes are tracked in per-stripe counters, which are updated after each operation on
+ * a stripe; hence, the {@code size} and {@code pollLast} operations read one counter per stripe instead of
+ * traversing the stripes, and the {@code size} is exact only in the absence of concurrent operations.
+ *
+ * @author agent
+ * @param <T> the type of objects held in this {@code ConcurrentCollection}
+ */
+public class StripedConcurrentCollection<T> implements ConcurrentCollection<T> {
+
+    private static final int MAX_STRIPES = 1 << 16;
+
+    private final Deque<T>[] stripes;
+    private final AtomicInteger[] sizes;
+    private final int mask;
+
+    private final AtomicInteger nextLast = new AtomicInteger();
+
+    /**
+     * Creates a new {@code StripedConcurrentCollection} with a number of stripes equal to the number of
+     * available processors, rounded up to a power of two.
+     */
+    public StripedConcurrentCollection() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new {@code StripedConcurrentCollection} with the given number of stripes, rounded up
+     * to a power of two.
+     *
+     * @param stripes the number of stripes
+     * @throws IllegalArgumentException if {@code stripes < 1 || stripes > 65536}
+     */
+    @SuppressWarnings("unchecked")
+    public StripedConcurrentCollection(int stripes) {
+        forbidIllegalArgument(stripes < 1 || stripes > MAX_STRIPES,
+                String.format("stripes %s should be between 1 and %s", stripes, MAX_STRIPES));
+
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = (Deque<T>[]) new Deque<?>[size];
+        this.sizes = new AtomicInteger[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ConcurrentLinkedDeque<>();
+            this.sizes[i] = new AtomicInteger();
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public void offerFirst(T object) {
+        int home = homeIndex();
+        stripes[home].addFirst(object);
+        sizes[home].incrementAndGet();
+    }
+
+    @Override
+    public void offerLast(T object) {
+        int index = nextLast.getAndIncrement() & mask;
+        stripes[index].addLast(object);
+        sizes[index].incrementAndGet();
+    }
+
+    @Override
+    public T pollFirst() {
+        int home = homeIndex();
+        T object = stripes[home].pollFirst();
+        if (object != null) {
+            sizes[home].decrementAndGet();
+            return object;
+        }
+        for (int i = 1; i <= mask; i++) {
+            object = pollLast((home + i) & mask);
+            if (object != null) {
+                return object;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public T pollLast() {
+        int largest = 0;
+        int largestSize = Integer.MIN_VALUE;
+        for (int i = 0; i <= mask; i++) {
+            int size = sizes[i].get();
+            if (size > largestSize) {
+                largest = i;
+                largestSize = size;
+            }
+        }
+        for (int i = 0; i <= mask; i++) {
+            T object = pollLast((largest + i) & mask);
+            if (object != null) {
+                return object;
+            }
+        }
+        return null;
+    }
+
+    private T pollLast(int index) {
+        T object = stripes[index].pollLast();
+        if (object != null) {
+            sizes[index].decrementAndGet();
+        }
+        return object;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (AtomicInteger stripeSize : sizes) {
+            size += stripeSize.get();
+        }
+        return Math.max(size, 0); // a stripe counter may be transiently behind its stripe
+    }
+
+    /**
+     * Returns the number of stripes in this collection.
+     *
+     * @return the number of stripes
+     */
+    public int stripes() {
+        return stripes.length;
+    }
+
+    private int homeIndex() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9; // Fibonacci hashing spreads the sequential thread ids
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
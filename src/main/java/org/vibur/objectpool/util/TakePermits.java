@@ -0,0 +1,147 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An adapter interface to a counting semaphore that guards the take operations of the object pool; one permit
+ * is held for each object taken from the pool. The methods of this interface have the same semantics as
+ * the methods with the same names of {@link Semaphore}.
+ *
+ * <p>The default implementation is {@link SemaphorePermits}, which delegates to {@code Semaphore}.
+ * {@link SpinParkPermits} is an alternative implementation which spins for a short while before parking
+ * the waiting threads. {@link BoundedWaitersPermits} is a decorator which limits the number of waiting threads.
+ *
+ * @author agent
+ */
+public interface TakePermits {
+
+    /**
+     * Acquires a permit, blocking until one is available, or the thread is interrupted.
+     *
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    void acquire() throws InterruptedException;
+
+    /**
+     * Acquires a permit, blocking until one is available.
+     */
+    void acquireUninterruptibly();
+
+    /**
+     * Acquires a permit only if one is available at the time of invocation.
+     *
+     * @return {@code true} if a permit was acquired and {@code false} otherwise
+     */
+    boolean tryAcquire();
+
+    /**
+     * Acquires the given number of permits only if all are available at the time of invocation.
+     *
+     * @param permits the number of permits to acquire
+     * @return {@code true} if the permits were acquired and {@code false} otherwise
+     */
+    boolean tryAcquire(int permits);
+
+    /**
+     * Acquires a permit if one becomes available within the given waiting time and the current thread
+     * has not been interrupted.
+     *
+     * @param timeout the maximum time to wait for a permit
+     * @param unit the time unit of the {@code timeout} argument
+     * @return {@code true} if a permit was acquired and {@code false} if the waiting time elapsed
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Acquires the given number of permits if all become available within the given waiting time and
+     * the current thread has not been interrupted.
+     *
+     * @param permits the number of permits to acquire
+     * @param timeout the maximum time to wait for the permits
+     * @param unit the time unit of the {@code timeout} argument
+     * @return {@code true} if all permits were acquired and {@code false} if the waiting time elapsed
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Releases a permit.
+     */
+    void release();
+
+    /**
+     * Releases the given number of permits.
+     *
+     * @param permits the number of permits to release
+     */
+    void release(int permits);
+
+    /**
+     * Reduces the number of available permits by the given reduction, without waiting for the permits to be
+     * available; the number of available permits may become negative, in which case the subsequently released
+     * permits are not available until the deficit is covered. Used by the resizing of the object pool.
+     *
+     * @param reduction the number of permits to remove
+     * @throws IllegalArgumentException if {@code reduction < 0}
+     */
+    void reducePermits(int reduction);
+
+    /**
+     * Called by the object pool before the calling thread starts waiting for an object in the waiters queue of the
+     * pool, instead of in the blocking acquire operations of these permits; see the prioritized take operations and
+     * the overload mode of {@link org.vibur.objectpool.ConcurrentPool}. Allows the decorators of these permits
+     * to limit and measure the queued waiting as well.
+     *
+     * @throws TooManyWaitersException if the calling thread is not allowed to wait
+     */
+    void enterQueue();
+
+    /**
+     * Called by the object pool when the calling thread, which has entered the waiters queue of the pool via
+     * {@link #enterQueue()}, stops waiting in it.
+     *
+     * @param waitedNanos the time for which the calling thread has waited in the queue
+     * @param timedOut {@code true} if the waiting time has elapsed before an object was taken
+     * @param interrupted {@code true} if the calling thread was interrupted while waiting
+     */
+    void exitQueue(long waitedNanos, boolean timedOut, boolean interrupted);
+
+    /**
+     * Returns the current number of permits available.
+     *
+     * @return the number of permits available
+     */
+    int availablePermits();
+
+    /**
+     * Returns an estimate of the number of threads waiting to acquire permits.
+     *
+     * @return the estimated number of threads waiting
+     */
+    int getQueueLength();
+
+    /**
+     * Returns {@code true} if the permits are granted to the waiting threads in the order of their arrival.
+     *
+     * @return {@code true} if this {@code TakePermits} has fairness set true
+     */
+    boolean isFair();
+}
@@ -23,7 +23,9 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * An instance of this class can be supplied to the pool at its creation time, and its methods will be called
  * upon calling the pool take and restore operations. This listener can provide a list of all currently taken
- * objects from the pool, which can be useful for testing and debugging purposes.
+ * objects from the pool, which can be useful for testing and debugging purposes. For detection of leaked objects
+ * in production, where the cost of tracking all taken objects may be prohibitive, see {@link SamplingLeakDetector}.
+ * For a garbage-free tracking of all taken objects, see {@link IndexedTakenListener}.
  *
  * @author Simeon Malchev
  */
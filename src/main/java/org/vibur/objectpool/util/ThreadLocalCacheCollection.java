@@ -0,0 +1,182 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ConcurrentCollection} decorator that keeps a per-thread cache of one recently restored object in front
+ * of a shared {@code ConcurrentCollection}, similarly to a "ConcurrentBag".
+ *
+ * <p>An object restored via {@link #offerFirst} is stored in the calling thread's cache slot if the slot is empty,
+ * and the next {@link #pollFirst} from the same thread will take it back without touching the shared collection.
+ * When both the thread's own slot and the shared collection are empty, {@code pollFirst} steals an object cached
+ * by another thread. The {@link #pollLast} operation, which is used by the pool reductions and termination, polls
+ * the cold end of the shared collection first and steals the cached objects only after the shared collection is
+ * exhausted; thus all cached objects remain visible to the pool reducers and can be drained by the pool.
+ *
+ * <p>The cache holds objects only, the pool permits and its {@code createdTotal} accounting are not affected.
+ * The cache slots of threads which have died are removed whenever a new thread registers its slot, whenever
+ * {@link #size} is called, and when other threads try to steal from them; the objects cached in the removed slots
+ * are moved to the shared collection. Hence, the number of slots is bounded by the number of live threads plus
+ * the threads which have died since the last registration.
+ *
+ * <p>Virtual threads bypass the cache and operate directly on the shared collection, as there may be millions of
+ * short-lived virtual threads and their slots would rarely be reused.
+ *
+ * @author agent
+ * @param <T> the type of objects held in this {@code ConcurrentCollection}
+ */
+public class ThreadLocalCacheCollection<T> implements ConcurrentCollection<T> {
+
+    private final ConcurrentCollection<T> shared;
+
+    private final Queue<Slot<T>> slots = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Slot<T>> localSlot = new ThreadLocal<Slot<T>>() {
+        @Override
+        protected Slot<T> initialValue() {
+            pruneDeadSlots();
+            Slot<T> slot = new Slot<>(Thread.currentThread());
+            slots.add(slot);
+            return slot;
+        }
+    };
+
+    /**
+     * Creates a new {@code ThreadLocalCacheCollection} in front of the given shared collection.
+     *
+     * @param shared the shared collection that will hold all objects which are not cached by a thread
+     * @throws NullPointerException if {@code shared} is null
+     */
+    public ThreadLocalCacheCollection(ConcurrentCollection<T> shared) {
+        this.shared = requireNonNull(shared);
+    }
+
+    @Override
+    public void offerFirst(T object) {
+        if (ThreadSupport.isVirtual(Thread.currentThread())) {
+            shared.offerFirst(object);
+            return;
+        }
+        Slot<T> slot = localSlot.get();
+        if (slot.get() == null) {
+            slot.lazySet(object); // only the owner thread sets the slot to non-null
+            return;
+        }
+        shared.offerFirst(object);
+    }
+
+    @Override
+    public void offerLast(T object) {
+        shared.offerLast(object);
+    }
+
+    @Override
+    public T pollFirst() {
+        T object = ThreadSupport.isVirtual(Thread.currentThread()) ? null : localSlot.get().poll();
+        if (object != null) {
+            return object;
+        }
+        object = shared.pollFirst();
+        if (object != null) {
+            return object;
+        }
+        return steal();
+    }
+
+    @Override
+    public T pollLast() {
+        T object = shared.pollLast();
+        if (object != null) {
+            return object;
+        }
+        return steal();
+    }
+
+    @Override
+    public int size() {
+        pruneDeadSlots();
+        int size = shared.size();
+        for (Slot<T> slot : slots) {
+            if (slot.get() != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private T steal() {
+        for (Iterator<Slot<T>> i = slots.iterator(); i.hasNext(); ) {
+            Slot<T> slot = i.next();
+            T object = slot.poll();
+            if (object != null) {
+                return object;
+            }
+            if (!slot.isOwnerAlive()) {
+                i.remove();
+                object = slot.poll(); // the owner may have cached an object just before dying
+                if (object != null) {
+                    return object;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the slots of the threads which have died, and moves the objects cached in them to the shared
+     * collection.
+     */
+    private void pruneDeadSlots() {
+        for (Iterator<Slot<T>> i = slots.iterator(); i.hasNext(); ) {
+            Slot<T> slot = i.next();
+            if (!slot.isOwnerAlive()) {
+                i.remove();
+                T object = slot.poll();
+                if (object != null) {
+                    shared.offerLast(object);
+                }
+            }
+        }
+    }
+
+    private static final class Slot<T> extends AtomicReference<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final WeakReference<Thread> owner;
+
+        private Slot(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        private T poll() {
+            T object = get();
+            return object != null && compareAndSet(object, null) ? object : null;
+        }
+
+        private boolean isOwnerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+/**
+ * Thrown by the take operations of an object pool guarded by {@link BoundedWaitersPermits} when the pool is
+ * exhausted and the maximum number of waiting threads has been reached. The exception does not have a stack
+ * trace, so that it is cheap to throw when shedding load.
+ *
+ * @author agent
+ */
+public class TooManyWaitersException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TooManyWaitersException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+/**
+ * Thread related helpers whose implementation depends on the Java version. This is the Java 21 version of
+ * the class, which is packaged in {@code META-INF/versions/21} of the multi-release jar.
+ *
+ * @author agent
+ */
+public final class ThreadSupport {
+
+    private ThreadSupport() { }
+
+    /**
+     * Returns {@code true} if the given thread is a virtual thread. Virtual threads should neither spin, as
+     * the spinning occupies a carrier thread which could run other virtual threads, nor use per-thread caches,
+     * as there may be millions of them.
+     *
+     * @param thread the thread to check
+     * @return {@code true} if the given thread is a virtual thread
+     */
+    public static boolean isVirtual(Thread thread) {
+        return thread.isVirtual();
+    }
+
+    /**
+     * Indicates that the caller is momentarily unable to progress and is busy-waiting.
+     */
+    public static void onSpinWait() {
+        Thread.onSpinWait();
+    }
+}
@@ -22,6 +22,24 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.vibur.objectpool.util.ConcurrentLinkedDequeCollection;
 import org.vibur.objectpool.util.ConcurrentLinkedQueueCollection;
+import org.vibur.objectpool.util.SemaphorePermits;
+import org.vibur.objectpool.util.SpinParkPermits;
+import org.vibur.objectpool.util.StripedConcurrentCollection;
+import org.vibur.objectpool.util.ThreadLocalCacheCollection;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -350,4 +368,658 @@ public class ConcurrentPoolTest {
         assertNotNull(obj1);
         assertTrue(timeWaited[0] >= 0);
     }
+
+    @Test
+    public void testThreadLocalCache() throws InterruptedException {
+        final ThreadLocalCacheCollection<Object> available =
+                new ThreadLocalCacheCollection<>(new ConcurrentLinkedDequeCollection<>());
+        pool = new ConcurrentPool<>(available, new SimpleObjectFactory(), 2, 3, false);
+
+        // the restored object is cached by this thread and taken back by it
+        Object obj1 = pool.take();
+        pool.restore(obj1);
+        assertSame(obj1, pool.take());
+        pool.restore(obj1);
+
+        assertEquals(2, pool.createdTotal());
+        assertEquals(2, pool.remainingCreated());
+        assertEquals(2, available.size());
+
+        // another thread steals the cached object once the shared collection is empty
+        final Object[] objs = new Object[2];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                objs[0] = pool.take();
+                objs[1] = pool.take();
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertNotNull(objs[0]);
+        assertNotNull(objs[1]);
+        assertEquals(2, pool.createdTotal());
+        assertEquals(0, pool.remainingCreated());
+        assertEquals(2, pool.taken());
+        assertEquals(0, available.size());
+
+        pool.restore(objs[0]);
+        pool.restore(objs[1]);
+        assertEquals(2, available.size());
+
+        // the reductions see the cached objects, too
+        assertEquals(2, pool.drainCreated());
+        assertEquals(0, pool.createdTotal());
+        assertEquals(0, available.size());
+    }
+
+    @Test
+    public void testStripedCollection() throws InterruptedException {
+        StripedConcurrentCollection<Object> available = new StripedConcurrentCollection<>(4);
+        assertEquals(4, available.stripes());
+        pool = new ConcurrentPool<>(available, new SimpleObjectFactory(), 8, 8, false);
+        assertEquals(8, available.size());
+
+        // takes all objects from a single thread, which steals from all stripes
+        final Object[] objs = new Object[8];
+        for (int i = 0; i < 8; i++) {
+            objs[i] = pool.take();
+            assertNotNull(objs[i]);
+        }
+        assertEquals(8, pool.createdTotal());
+        assertEquals(0, available.size());
+
+        // restores the objects from another thread and reduces the pool
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                for (Object obj : objs) {
+                    pool.restore(obj);
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertEquals(8, available.size());
+        assertEquals(8, pool.remainingCreated());
+        assertEquals(3, pool.reduceCreatedTo(5, true));
+        assertEquals(5, available.size());
+        assertEquals(5, pool.createdTotal());
+    }
+
+    @Test
+    public void testTakeAsync() throws InterruptedException, ExecutionException {
+        ConcurrentPool<Object> pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 1, false);
+        this.pool = pool;
+
+        // takes the only object and queues a second async taker
+        CompletableFuture<Object> future1 = pool.takeAsync();
+        assertTrue(future1.isDone());
+        Object obj1 = future1.get();
+        assertNotNull(obj1);
+
+        CompletableFuture<Object> future2 = pool.takeAsync();
+        assertFalse(future2.isDone());
+
+        // the restored object is handed directly to the pending async taker
+        pool.restore(obj1);
+        assertTrue(future2.isDone());
+        assertSame(obj1, future2.get());
+        assertEquals(1, pool.taken());
+        assertEquals(0, pool.remainingCapacity());
+
+        // a timed out or cancelled async taker does not keep the permit
+        CompletableFuture<Object> future3 = pool.takeAsync(10, TimeUnit.MILLISECONDS);
+        assertNull(future3.get());
+        CompletableFuture<Object> future4 = pool.takeAsync();
+        assertTrue(future4.cancel(false));
+
+        pool.restore(obj1);
+        assertEquals(0, pool.taken());
+        assertEquals(1, pool.remainingCapacity());
+        assertEquals(1, pool.remainingCreated());
+
+        // the pending async takers are completed exceptionally on termination
+        obj1 = pool.take();
+        CompletableFuture<Object> future5 = pool.takeAsync();
+        pool.terminate();
+        assertTrue(future5.isCompletedExceptionally());
+        try {
+            future5.get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertSame(IllegalStateException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testTakeManyAndRestoreAll() {
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 4, 10, false);
+
+        // takes 6 objects, 4 of which are already created in the pool
+        Object[] objs = new Object[8];
+        assertEquals(6, pool.takeMany(objs, 6, 1, TimeUnit.SECONDS));
+        for (int i = 0; i < 6; i++) {
+            assertNotNull(objs[i]);
+        }
+        assertNull(objs[6]);
+        assertEquals(6, pool.createdTotal());
+        assertEquals(6, pool.taken());
+        assertEquals(4, pool.remainingCapacity());
+
+        // only 4 objects remain available, i.e. the take partially succeeds after the timeout
+        Object[] more = new Object[8];
+        assertEquals(4, pool.takeMany(more, 8, 10, TimeUnit.MILLISECONDS));
+        assertEquals(10, pool.taken());
+        assertEquals(0, pool.takeMany(new Object[1], 1, 0, TimeUnit.MILLISECONDS));
+
+        // restores the objects in bulk, the second batch as invalid
+        pool.restoreAll(objs, 6, true);
+        for (Object obj : objs) {
+            assertNull(obj);
+        }
+        pool.restoreAll(more, 4, false);
+        assertEquals(6, pool.createdTotal());
+        assertEquals(6, pool.remainingCreated());
+        assertEquals(10, pool.remainingCapacity());
+        assertEquals(0, pool.taken());
+    }
+
+    @Test
+    public void testMinIdleReplenishing() {
+        Executor sameThreadExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 5, false,
+                null, 3, sameThreadExecutor);
+
+        // the pool is replenished up to minIdle objects at construction time
+        assertEquals(3, pool.minIdle());
+        assertEquals(3, pool.createdTotal());
+        assertEquals(3, pool.remainingCreated());
+
+        // every take is followed by replenishing of the idle objects
+        Object obj1 = pool.take();
+        assertEquals(4, pool.createdTotal());
+        assertEquals(3, pool.remainingCreated());
+
+        // the replenishing does not exceed maxSize
+        Object[] objs = new Object[4];
+        assertEquals(4, pool.takeMany(objs, 4, 0, TimeUnit.MILLISECONDS));
+        assertEquals(5, pool.createdTotal());
+        assertEquals(0, pool.remainingCreated());
+        assertEquals(5, pool.taken());
+
+        // an invalid restore triggers replenishing, too
+        pool.restore(obj1, false);
+        assertEquals(5, pool.createdTotal());
+        assertEquals(1, pool.remainingCreated());
+        assertEquals(0, pool.increaseCreatedBy(1));
+
+        // and so does an invalid batch restore
+        pool.restoreAll(objs, 2, false);
+        assertEquals(5, pool.createdTotal());
+        assertEquals(3, pool.remainingCreated());
+        assertEquals(2, pool.taken());
+    }
+
+    @Test
+    public void testSpinParkPermits() throws InterruptedException {
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 2,
+                new SpinParkPermits(2, true), null, 0, null);
+        assertTrue(pool.isFair());
+
+        Object obj1 = pool.take();
+        Object obj2 = pool.take();
+        assertNull(pool.tryTake(10, TimeUnit.MILLISECONDS));
+        assertEquals(0, pool.remainingCapacity());
+
+        // a blocked taker gets the object once it is restored
+        final Object[] taken = new Object[1];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                taken[0] = pool.take();
+            }
+        };
+        thread.start();
+        Thread.sleep(50);
+        pool.restore(obj1);
+        thread.join();
+        assertSame(obj1, taken[0]);
+        assertEquals(2, pool.taken());
+
+        // a blocked taker is released on termination
+        thread = new Thread() {
+            @Override
+            public void run() {
+                taken[0] = pool.take();
+            }
+        };
+        thread.start();
+        Thread.sleep(50);
+        pool.terminate();
+        thread.join();
+        assertNull(taken[0]);
+        pool.restore(obj2);
+    }
+
+    @Test
+    public void testLease() {
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 2, false);
+
+        Lease<Object> lease;
+        Object obj;
+        try (Lease<Object> l = pool.takeLease()) {
+            lease = l;
+            obj = l.get();
+            assertNotNull(obj);
+            assertEquals(1, lease.stamp());
+            assertEquals(1, pool.taken());
+        }
+        assertEquals(0, pool.taken());
+        assertEquals(1, pool.remainingCreated());
+        assertEquals(4, lease.stamp());
+
+        // a repeated close is ignored, and a closed lease cannot be used
+        lease.close();
+        assertEquals(0, pool.taken());
+        assertEquals(2, pool.remainingCapacity());
+        try {
+            lease.get();
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException ignored) {
+        }
+
+        // the lease is recycled for the same object
+        try (Lease<Object> l = pool.tryTakeLease(1, TimeUnit.SECONDS)) {
+            assertSame(lease, l);
+            assertSame(obj, l.get());
+            assertEquals(5, l.stamp());
+            l.markInvalid();
+            assertEquals(5, l.stamp());
+        }
+        assertEquals(0, pool.taken());
+        assertEquals(0, pool.createdTotal());
+        assertEquals(2, pool.remainingCapacity());
+
+        Lease<Object> lease1 = pool.takeLease();
+        Lease<Object> lease2 = pool.takeLease();
+        assertNotSame(lease1, lease2);
+        assertNull(pool.tryTakeLease(1, TimeUnit.MILLISECONDS));
+        lease1.close();
+        lease2.close();
+        lease2.close();
+        assertEquals(2, pool.remainingCreated());
+        assertEquals(2, pool.remainingCapacity());
+    }
+
+    @Test
+    public void testStaleLease() {
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 1, false);
+
+        Lease<Object> lease = pool.takeLease();
+        long stamp = lease.stamp();
+        Object obj = lease.get(stamp);
+        lease.close(stamp);
+        assertEquals(0, pool.taken());
+
+        // the same lease instance is handed out again to another borrower
+        Lease<Object> other = pool.takeLease();
+        long otherStamp = other.stamp();
+        assertSame(lease, other);
+        assertNotEquals(stamp, otherStamp);
+
+        // the stale calls neither return nor restore the object of the other borrower
+        try {
+            lease.get(stamp);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException ignored) {
+        }
+        try {
+            lease.markInvalid(stamp);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException ignored) {
+        }
+        lease.close(stamp);
+        assertEquals(1, pool.taken());
+        assertSame(obj, other.get(otherStamp));
+
+        other.close(otherStamp);
+        assertEquals(0, pool.taken());
+        assertEquals(1, pool.remainingCreated());
+    }
+
+    @Test
+    public void testConcurrentLeaseDoubleClose() throws InterruptedException {
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 2, 2, false);
+
+        final Set<Object> inUse = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+        final AtomicInteger sharedObjects = new AtomicInteger();
+        final AtomicInteger otherLeases = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 10000; i++) {
+                            try (Lease<Object> lease = pool.takeLease()) {
+                                Object obj = lease.get();
+                                if (!inUse.add(obj)) {
+                                    sharedObjects.incrementAndGet(); // handed out to two borrowers at the same time
+                                }
+                                inUse.remove(obj);
+                                lease.close(); // explicit close, followed by the implicit one
+                                Thread.yield(); // lets the other threads borrow the object in the meantime
+                                if (lease.stamp() % 4 != 0) {
+                                    otherLeases.incrementAndGet(); // handed out to another borrower
+                                }
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+
+        assertEquals(0, sharedObjects.get());
+        assertEquals(0, otherLeases.get());
+        assertEquals(0, pool.taken());
+        assertEquals(2, pool.createdTotal());
+        assertEquals(2, pool.remainingCreated());
+    }
+
+    @Test
+    public void testRecycledLeaseDoesNotRetainPool() throws InterruptedException {
+        ConcurrentPool<Object> leasePool = new ConcurrentPool<>(
+                new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 1, false);
+        final WeakReference<ConcurrentPool<Object>> poolRef = new WeakReference<>(leasePool);
+
+        // a long-lived borrowing thread keeps its recycled lease after the pool is terminated
+        final CountDownLatch borrowed = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Thread borrower = new Thread() {
+            @Override
+            public void run() {
+                borrowLease(poolRef.get());
+                borrowed.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        };
+        borrower.start();
+        try {
+            assertTrue(borrowed.await(5, TimeUnit.SECONDS));
+            leasePool.terminate();
+            leasePool = null;
+
+            for (int i = 0; i < 50 && poolRef.get() != null; i++) {
+                System.gc();
+                Thread.sleep(20);
+            }
+            assertNull(poolRef.get());
+        } finally {
+            release.countDown();
+            borrower.join();
+        }
+    }
+
+    private static void borrowLease(PoolService<Object> pool) {
+        try (Lease<Object> lease = pool.takeLease()) {
+            assertNotNull(lease.get());
+        }
+    }
+
+    @Test
+    public void testParallelAndAsyncInitialFill() throws InterruptedException, ExecutionException {
+        final CountDownLatch created = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final AtomicInteger destroyed = new AtomicInteger();
+        PoolObjectFactory<Object> slowFactory = new SimpleObjectFactory() {
+            @Override
+            public Object create() {
+                if (created.getCount() == 0) {
+                    try {
+                        proceed.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                created.countDown();
+                return super.create();
+            }
+
+            @Override
+            public void destroy(Object obj) {
+                destroyed.incrementAndGet();
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // async fill, the take waits only for the first created object and does not create its own object
+            ConcurrentPool<Object> asyncPool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(),
+                    slowFactory, 10, 20, new SemaphorePermits(20, false), null, 0, executor, 4, true);
+            pool = asyncPool;
+            assertFalse(asyncPool.initialFill().isDone());
+            Object obj = pool.tryTake(5, TimeUnit.SECONDS);
+            assertNotNull(obj);
+            assertFalse(asyncPool.initialFill().isDone());
+            assertEquals(1, pool.createdTotal());
+            assertEquals(0, pool.remainingCapacity());
+            assertNull(pool.tryTake());
+            proceed.countDown();
+            asyncPool.initialFill().get();
+            pool.restore(obj);
+            assertEquals(10, pool.createdTotal());
+            assertEquals(10, pool.remainingCreated());
+            assertEquals(20, pool.remainingCapacity());
+            pool.terminate();
+
+            // parallel fill, a failed creation destroys all created objects
+            final AtomicInteger creations = new AtomicInteger();
+            destroyed.set(0);
+            try {
+                new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory() {
+                    @Override
+                    public Object create() {
+                        if (creations.incrementAndGet() == 6) {
+                            throw new IllegalStateException("creation failed");
+                        }
+                        return super.create();
+                    }
+
+                    @Override
+                    public void destroy(Object obj) {
+                        destroyed.incrementAndGet();
+                    }
+                }, 10, 20, new SemaphorePermits(20, false), null, 0, executor, 4, false);
+                fail("IllegalStateException expected");
+            } catch (IllegalStateException e) {
+                assertEquals("creation failed", e.getMessage());
+            }
+            assertEquals(creations.get() - 1, destroyed.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAsyncDestroy() throws InterruptedException {
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final AtomicInteger destroyed = new AtomicInteger();
+        PoolObjectFactory<Object> slowFactory = new SimpleObjectFactory() {
+            @Override
+            public void destroy(Object obj) {
+                try {
+                    proceed.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                destroyed.incrementAndGet();
+            }
+        };
+        ExecutorService destroyer = Executors.newSingleThreadExecutor();
+        try {
+            ConcurrentPool<Object> asyncPool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(),
+                    slowFactory, 5, 10, new SemaphorePermits(10, false), null, 0, null, 1, false, destroyer, 10);
+            pool = asyncPool;
+
+            // the invalid restores and the reductions do not wait for the destroying
+            Object obj = pool.take();
+            pool.restore(obj, false);
+            assertEquals(2, pool.reduceCreatedBy(2, true));
+            assertEquals(3, asyncPool.pendingDestroys());
+            assertEquals(2, pool.createdTotal());
+            assertEquals(10, pool.remainingCapacity());
+            assertEquals(0, destroyed.get());
+
+            pool.terminate();
+            assertFalse(asyncPool.awaitTermination(10, TimeUnit.MILLISECONDS));
+            proceed.countDown();
+            assertTrue(asyncPool.awaitTermination(1, TimeUnit.SECONDS));
+            assertEquals(5, destroyed.get());
+            assertEquals(0, asyncPool.pendingDestroys());
+        } finally {
+            destroyer.shutdown();
+        }
+    }
+
+    @Test
+    public void testPrioritizedTake() throws InterruptedException {
+        final ConcurrentPool<Object> priorityPool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(),
+                new SimpleObjectFactory(), 1, 1, false);
+        pool = priorityPool;
+        final Object obj = priorityPool.take(ConcurrentPool.MAX_PRIORITY);
+        assertNotNull(obj);
+        assertNull(priorityPool.tryTake(ConcurrentPool.MAX_PRIORITY, 10, TimeUnit.MILLISECONDS));
+
+        final ConcurrentLinkedQueue<String> served = new ConcurrentLinkedQueue<>();
+        Thread low = prioritizedTaker(priorityPool, ConcurrentPool.MIN_PRIORITY, "low", served);
+        Thread.sleep(50);
+        Thread high = prioritizedTaker(priorityPool, ConcurrentPool.MAX_PRIORITY, "high", served);
+        Thread.sleep(50);
+
+        pool.restore(obj);
+        high.join(5000);
+        low.join(5000);
+        assertArrayEquals(new String[] {"high", "low"}, served.toArray());
+
+        // the low priority taker is aged above the max priority after waiting (MAX_PRIORITY + 1) aging intervals
+        Object obj2 = pool.take();
+        served.clear();
+        low = prioritizedTaker(priorityPool, ConcurrentPool.MIN_PRIORITY, "low", served);
+        Thread.sleep((ConcurrentPool.MAX_PRIORITY + 1) * ConcurrentPool.PRIORITY_AGING_MILLIS + 50);
+        high = prioritizedTaker(priorityPool, ConcurrentPool.MAX_PRIORITY, "high", served);
+        Thread.sleep(50);
+
+        pool.restore(obj2);
+        high.join(5000);
+        low.join(5000);
+        assertArrayEquals(new String[] {"low", "high"}, served.toArray());
+        assertEquals(0, pool.taken());
+    }
+
+    @Test
+    public void testLifoUnderOverload() throws InterruptedException {
+        final ConcurrentPool<Object> lifoPool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(),
+                new SimpleObjectFactory(), 1, 1, true);
+        pool = lifoPool;
+        lifoPool.setLifoThreshold(50, TimeUnit.MILLISECONDS);
+        Object obj = pool.take();
+        assertNull(pool.tryTake(10, TimeUnit.MILLISECONDS)); // an expired waiter is dropped from the queue
+
+        final ConcurrentLinkedQueue<String> served = new ConcurrentLinkedQueue<>();
+        Thread oldest = prioritizedTaker(lifoPool, -1, "oldest", served);
+        Thread.sleep(100);
+        Thread newest = prioritizedTaker(lifoPool, -1, "newest", served);
+        Thread.sleep(50);
+
+        // the oldest waiter has been waiting for longer than the threshold, hence the newest one is served first
+        pool.restore(obj);
+        newest.join(5000);
+        oldest.join(5000);
+        assertArrayEquals(new String[] {"newest", "oldest"}, served.toArray());
+        assertEquals(0, pool.taken());
+    }
+
+    @Test
+    public void testSetMaxSize() {
+        ConcurrentPool<Object> resizablePool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(),
+                new SimpleObjectFactory(), 2, 5, false);
+        pool = resizablePool;
+        Object[] objs = new Object[5];
+        assertEquals(5, pool.takeMany(objs, 5, 0, TimeUnit.SECONDS));
+
+        // shrinking below the taken objects
+        resizablePool.setMaxSize(3);
+        assertEquals(3, pool.maxSize());
+        assertEquals(5, pool.taken());
+        assertEquals(0, pool.remainingCapacity());
+        assertNull(pool.tryTake());
+
+        // the restored objects in excess of the new max size are destroyed
+        pool.restore(objs[4]);
+        pool.restore(objs[3]);
+        assertEquals(3, pool.createdTotal());
+        assertEquals(3, pool.taken());
+        assertEquals(0, pool.remainingCapacity());
+        pool.restore(objs[2]);
+        assertEquals(3, pool.createdTotal());
+        assertEquals(2, pool.taken());
+        assertEquals(1, pool.remainingCapacity());
+
+        // growing
+        resizablePool.setMaxSize(6);
+        assertEquals(2, pool.taken());
+        assertEquals(4, pool.remainingCapacity());
+        Object[] more = new Object[4];
+        assertEquals(4, pool.takeMany(more, 4, 0, TimeUnit.SECONDS));
+        assertEquals(6, pool.taken());
+        assertEquals(6, pool.createdTotal());
+        pool.restoreAll(more, 4, true);
+
+        // shrinking destroys the available objects in excess of the new max size
+        resizablePool.setMaxSize(2);
+        assertEquals(2, pool.taken());
+        assertEquals(2, pool.createdTotal());
+        assertEquals(0, pool.remainingCapacity());
+        pool.restoreAll(objs, 2, true);
+        assertEquals(0, pool.taken());
+        assertEquals(2, pool.remainingCapacity());
+
+        try {
+            resizablePool.setMaxSize(1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException ignored) {
+            // expected, below the initial size
+        }
+    }
+
+    /** Starts a taker with the given priority, or a non-prioritized {@code tryTake} if the priority is negative. */
+    private Thread prioritizedTaker(final ConcurrentPool<Object> priorityPool, final int priority,
+                                    final String name, final ConcurrentLinkedQueue<String> served) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Object obj = priority >= 0 ? priorityPool.tryTake(priority, 5, TimeUnit.SECONDS)
+                        : priorityPool.tryTake(5, TimeUnit.SECONDS);
+                if (obj != null) {
+                    served.add(name);
+                    priorityPool.restore(obj);
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
 }
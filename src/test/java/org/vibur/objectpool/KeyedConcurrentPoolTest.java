@@ -0,0 +1,174 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class KeyedConcurrentPoolTest {
+
+    private KeyedConcurrentPool<String, Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    private static KeyedPoolObjectFactory<String, Object> keyedFactory() {
+        return new KeyedPoolObjectFactory<String, Object>() {
+            @Override
+            public PoolObjectFactory<Object> forKey(String key) {
+                return new SimpleObjectFactory();
+            }
+        };
+    }
+
+    @Test
+    public void testEvictsIdleObjectOfAnotherKey() {
+        pool = new KeyedConcurrentPool<>(keyedFactory(), 0, 3, 3, false);
+
+        Object a1 = pool.take("a");
+        Object a2 = pool.take("a");
+        Object b1 = pool.take("b");
+        assertEquals(3, pool.createdTotal());
+        assertNull(pool.tryTake("c"));
+
+        pool.restore("a", a1);
+        Object c1 = pool.tryTake("c");
+        assertNotNull(c1);
+        assertEquals(0, pool.pool("a").remainingCreated());
+        assertEquals(1, pool.pool("a").createdTotal());
+        assertEquals(3, pool.createdTotal());
+        assertEquals(3, pool.taken());
+
+        pool.restore("a", a2);
+        pool.restore("b", b1);
+        pool.restore("c", c1);
+        assertEquals(3, pool.remainingCreated());
+        assertEquals(3, pool.keys().size());
+
+        assertEquals(3, pool.reduceCreatedBy(10, false));
+        assertEquals(0, pool.createdTotal());
+    }
+
+    @Test
+    public void testTryTakeTimesOutWhenCapacityExhausted() {
+        pool = new KeyedConcurrentPool<>(keyedFactory(), 0, 2, 2, false);
+
+        Object a1 = pool.take("a");
+        Object a2 = pool.take("a");
+        long start = System.nanoTime();
+        assertNull(pool.tryTake("b", 50, MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= MILLISECONDS.toNanos(50));
+        assertEquals(2, pool.taken());
+
+        pool.restore("a", a1);
+        pool.restore("a", a2);
+    }
+
+    @Test
+    public void testWaiterTakesAfterRestoreOfAnotherKey() throws InterruptedException {
+        pool = new KeyedConcurrentPool<>(keyedFactory(), 0, 2, 2, false);
+
+        Object a1 = pool.take("a");
+        Object a2 = pool.take("a");
+
+        final AtomicReference<Object> taken = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                taken.set(pool.tryTake("b", 5, SECONDS));
+                done.countDown();
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        assertEquals(1, done.getCount());
+
+        pool.restore("a", a1);
+        assertTrue(done.await(5, SECONDS));
+        assertNotNull(taken.get());
+        assertEquals(1, pool.pool("a").createdTotal());
+        assertEquals(1, pool.pool("b").createdTotal());
+
+        pool.restore("b", taken.get());
+        pool.restore("a", a2);
+    }
+
+    @Test
+    public void testSubPoolIsCreatedOncePerKey() throws InterruptedException {
+        final AtomicInteger created = new AtomicInteger();
+        pool = new KeyedConcurrentPool<>(new KeyedPoolObjectFactory<String, Object>() {
+            @Override
+            public PoolObjectFactory<Object> forKey(String key) {
+                return new SimpleObjectFactory() {
+                    @Override
+                    public Object create() {
+                        created.incrementAndGet();
+                        try {
+                            Thread.sleep(10); // widens the race between the concurrent creations of the sub-pool
+                        } catch (InterruptedException ignored) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return super.create();
+                    }
+                };
+            }
+        }, 2, 4, 8, false);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        pool.pool("a");
+                    } catch (InterruptedException ignored) {
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        assertTrue(done.await(5, SECONDS));
+
+        // only the initial objects of a single sub-pool are created
+        assertEquals(2, created.get());
+        assertEquals(2, pool.createdTotal());
+    }
+}
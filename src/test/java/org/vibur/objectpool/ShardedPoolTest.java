@@ -0,0 +1,206 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class ShardedPoolTest {
+
+    private ShardedPool<Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    @Test
+    public void testStealsFromOtherShards() {
+        pool = new ShardedPool<>(new SimpleObjectFactory(), 2, 10, 4, false, null);
+        assertEquals(4, pool.shards());
+        assertEquals(2, pool.createdTotal());
+        assertEquals(10, pool.remainingCapacity());
+
+        Object[] objs = new Object[10];
+        for (int i = 0; i < 10; i++) {
+            objs[i] = pool.tryTake();
+            assertNotNull(objs[i]);
+        }
+        assertNull(pool.tryTake());
+        assertNull(pool.tryTake(10, MILLISECONDS));
+        assertEquals(10, pool.taken());
+        assertEquals(0, pool.remainingCapacity());
+
+        pool.restoreAll(objs, 10, true);
+        assertEquals(10, pool.remainingCreated());
+        assertEquals(10, pool.remainingCapacity());
+
+        assertEquals(8, pool.reduceCreatedBy(10, false));
+        assertEquals(2, pool.createdTotal());
+        assertEquals(2, pool.reduceCreatedBy(10, true));
+        assertEquals(8, pool.increaseCreatedBy(8));
+        assertEquals(8, pool.createdTotal());
+    }
+
+    @Test
+    public void testTakesIdleObjectsOfOtherShardsBeforeCreating() {
+        pool = new ShardedPool<>(new SimpleObjectFactory(), 4, 8, 4, false, null);
+        assertEquals(4, pool.createdTotal());
+
+        // the calling thread has a single home shard, which has spare capacity but only one idle object
+        Object[] objs = new Object[5];
+        for (int i = 0; i < 4; i++) {
+            objs[i] = pool.tryTake();
+            assertNotNull(objs[i]);
+        }
+        assertEquals(4, pool.createdTotal());
+        assertEquals(0, pool.remainingCreated());
+
+        objs[4] = pool.tryTake();
+        assertNotNull(objs[4]);
+        assertEquals(5, pool.createdTotal());
+
+        pool.restoreAll(objs, 5, true);
+        assertEquals(5, pool.remainingCreated());
+    }
+
+    @Test
+    public void testWaiterTakesObjectRestoredToAnotherShard() throws InterruptedException {
+        pool = new ShardedPool<>(new SimpleObjectFactory(), 0, 2, 2, false, null);
+        final Object obj1 = pool.take();
+        final Object obj2 = pool.take();
+
+        final AtomicReference<Object> taken = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                taken.set(pool.tryTake(5, SECONDS));
+                done.countDown();
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        assertEquals(1, done.getCount());
+
+        pool.restore(obj1);
+        assertTrue(done.await(5, SECONDS));
+        assertEquals(obj1, taken.get());
+
+        pool.restore(taken.get());
+        pool.restore(obj2);
+        assertEquals(0, pool.taken());
+        assertEquals(2, pool.remainingCreated());
+    }
+
+    @Test
+    public void testWaiterWokenUpByLeaseClose() throws InterruptedException {
+        pool = new ShardedPool<>(new SimpleObjectFactory(), 0, 2, 2, false, null);
+        Lease<Object> lease1 = pool.takeLease();
+        Lease<Object> lease2 = pool.takeLease();
+        Object obj1 = lease1.get();
+
+        final AtomicReference<Object> taken = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                taken.set(pool.tryTake(5, SECONDS));
+                done.countDown();
+            }
+        }).start();
+        Thread.sleep(50);
+        assertEquals(1, done.getCount());
+
+        lease1.close();
+        assertTrue(done.await(5, SECONDS));
+        assertEquals(obj1, taken.get());
+
+        pool.restore(taken.get());
+        lease2.close();
+        assertEquals(0, pool.taken());
+    }
+
+    @Test
+    public void testFairWaitersServedInArrivalOrder() throws InterruptedException {
+        pool = new ShardedPool<>(new SimpleObjectFactory(), 0, 2, 2, true, null);
+        Object obj1 = pool.take();
+        Object obj2 = pool.take();
+
+        final AtomicReference<Object> taken1 = new AtomicReference<>();
+        final AtomicReference<Object> taken2 = new AtomicReference<>();
+        final CountDownLatch done1 = new CountDownLatch(1);
+        final CountDownLatch done2 = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                taken1.set(pool.tryTake(5, SECONDS));
+                done1.countDown();
+            }
+        }).start();
+        Thread.sleep(50);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                taken2.set(pool.tryTake(5, SECONDS));
+                done2.countDown();
+            }
+        }).start();
+        Thread.sleep(50);
+
+        pool.restore(obj2);
+        assertTrue(done1.await(5, SECONDS));
+        assertEquals(obj2, taken1.get());
+        assertEquals(1, done2.getCount());
+
+        pool.restore(obj1);
+        assertTrue(done2.await(5, SECONDS));
+        assertEquals(obj1, taken2.get());
+
+        pool.restore(taken1.get());
+        pool.restore(taken2.get());
+        assertEquals(0, pool.taken());
+    }
+
+    @Test
+    public void testRestoreOfForeignObject() {
+        pool = new ShardedPool<>(new SimpleObjectFactory(), 0, 2, 2, false, null);
+        try {
+            pool.restore(new Object());
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+    }
+}
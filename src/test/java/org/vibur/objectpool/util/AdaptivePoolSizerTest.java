@@ -0,0 +1,75 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class AdaptivePoolSizerTest {
+
+    private PoolService<Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 0, 100, false);
+        // not started, the samples are taken explicitly below
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(pool, 1, TimeUnit.SECONDS, 10, 0.5, 0.25);
+
+        Object[] objs = new Object[100];
+        int taken = 0;
+        for (int ramp = 10; ramp <= 40; ramp += 10) { // a ramp of the demand
+            while (taken < ramp) {
+                objs[taken++] = pool.take();
+            }
+            sizer.samplePool();
+            assertTrue(pool.createdTotal() >= Math.ceil(ramp * 1.25));
+        }
+        assertTrue(sizer.forecast() > 40);
+        assertTrue(pool.createdTotal() > 50);
+        assertTrue(pool.remainingCreated() > 0); // the next takes will not create objects
+
+        pool.restoreAll(objs, taken, true);
+        sizer.minRemainingCreated = Integer.MAX_VALUE; // starts a new interval, as done by the sizer thread
+        for (int i = 0; i < 9; i++) {
+            sizer.samplePool();
+        }
+        int createdTotal = pool.createdTotal();
+        sizer.reducePool();
+        assertTrue(pool.createdTotal() < createdTotal);
+        assertTrue(pool.createdTotal() >= 50); // not below the peak demand plus headroom
+        assertEquals(0, pool.taken());
+    }
+}
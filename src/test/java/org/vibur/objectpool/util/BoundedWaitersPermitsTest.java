@@ -0,0 +1,117 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.SimpleObjectFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class BoundedWaitersPermitsTest {
+
+    private ConcurrentPool<Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    @Test
+    public void testRejectsWaitersAboveLimit() throws InterruptedException {
+        doTestRejectsWaitersAboveLimit(false);
+    }
+
+    @Test
+    public void testRejectsQueuedWaitersAboveLimit() throws InterruptedException {
+        doTestRejectsWaitersAboveLimit(true);
+    }
+
+    @Test
+    public void testQueuedWaiterTimeout() {
+        PoolMetrics<Object> metrics = new PoolMetrics<>(1);
+        BoundedWaitersPermits permits = new BoundedWaitersPermits(new SemaphorePermits(1, false), 1);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(),
+                1, 1, metrics.permits(permits), null, 0, null);
+        pool.setLifoThreshold(1, MILLISECONDS);
+
+        Object obj = pool.take();
+        assertNull(pool.tryTake(10, MILLISECONDS));
+        assertEquals(0, permits.waiters());
+        assertEquals(1, metrics.timeouts());
+        assertEquals(2, metrics.takeWait().snapshot().count()); // including the first take, which did not wait
+        pool.restore(obj);
+    }
+
+    private void doTestRejectsWaitersAboveLimit(boolean overload) throws InterruptedException {
+        PoolMetrics<Object> metrics = new PoolMetrics<>(1);
+        BoundedWaitersPermits permits = new BoundedWaitersPermits(new SemaphorePermits(1, false), 1);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(),
+                1, 1, metrics.permits(permits), null, 0, null);
+        if (overload) {
+            pool.setLifoThreshold(1, MILLISECONDS);
+        }
+
+        Object obj = pool.take();
+        final AtomicReference<Object> taken = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                taken.set(pool.tryTake(5, SECONDS));
+                done.countDown();
+            }
+        }).start();
+        while (permits.waiters() == 0) {
+            Thread.sleep(1);
+        }
+
+        long start = System.nanoTime();
+        try {
+            pool.tryTake(5, SECONDS);
+            fail("TooManyWaitersException expected");
+        } catch (TooManyWaitersException ignored) {
+            // expected
+        }
+        assertTrue(System.nanoTime() - start < SECONDS.toNanos(1));
+        assertEquals(1, permits.rejected());
+        assertEquals(1, metrics.rejections());
+        assertEquals(0, metrics.timeouts());
+
+        pool.restore(obj);
+        assertTrue(done.await(5, SECONDS));
+        assertNotNull(taken.get());
+        assertEquals(0, permits.waiters());
+        pool.restore(taken.get());
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author agent
+ */
+public class IdlePoolReducerTest {
+
+    private PoolService<Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    @Test
+    public void testReduceIdle() throws InterruptedException {
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 2, 10, false);
+        assertEquals(0, pool.reduceIdleBy(10, 0, MILLISECONDS, false)); // starts the recording of the idle times
+
+        Object[] objs = new Object[5];
+        for (int i = 0; i < 5; i++) {
+            objs[i] = pool.take();
+        }
+        for (int i = 0; i < 5; i++) {
+            pool.restore(objs[i]);
+        }
+        Thread.sleep(100);
+
+        // uses the two most recently restored objects, which makes them not idle
+        Object obj1 = pool.take();
+        Object obj2 = pool.take();
+        pool.restore(obj2);
+        pool.restore(obj1);
+
+        assertEquals(2, pool.reduceIdleBy(2, 50, MILLISECONDS, false));
+        assertEquals(1, pool.reduceIdleBy(10, 50, MILLISECONDS, true));
+        assertEquals(2, pool.createdTotal());
+        assertEquals(2, pool.remainingCreated());
+        assertEquals(10, pool.remainingCapacity());
+
+        // the remaining objects are the two most recently used ones
+        Object obj3 = pool.take();
+        Object obj4 = pool.take();
+        assertEquals(obj1, obj3);
+        assertEquals(obj2, obj4);
+        pool.restore(obj3);
+        pool.restore(obj4);
+    }
+
+    @Test
+    public void testIdlePoolReducer() throws InterruptedException {
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 10, false);
+        IdlePoolReducer reducer = new IdlePoolReducer(pool, 50, 20, TimeUnit.MILLISECONDS);
+        assertNull(clockThread());
+        reducer.start();
+        Thread clock = clockThread();
+        assertNotNull(clock);
+
+        Object[] objs = new Object[8];
+        for (int i = 0; i < 8; i++) {
+            objs[i] = pool.take();
+        }
+        for (int i = 0; i < 8; i++) {
+            pool.restore(objs[i]);
+        }
+        assertEquals(8, pool.createdTotal());
+
+        Thread.sleep(300);
+        reducer.terminate();
+        assertEquals(1, pool.createdTotal());
+        assertEquals(1, pool.remainingCreated());
+
+        // the clock thread is stopped together with its last user
+        clock.join(1000);
+        assertFalse(clock.isAlive());
+        assertNull(clockThread());
+    }
+
+    private static Thread clockThread() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("vibur-object-pool-clock") && thread.isAlive()) {
+                return thread;
+            }
+        }
+        return null;
+    }
+}
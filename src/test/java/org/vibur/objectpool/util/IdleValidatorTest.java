@@ -0,0 +1,141 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author agent
+ */
+public class IdleValidatorTest {
+
+    private PoolService<Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    @Test
+    public void testIdleValidator() throws InterruptedException {
+        final Set<Object> broken = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        final AtomicInteger validations = new AtomicInteger();
+        SimpleObjectFactory factory = new SimpleObjectFactory() {
+            @Override
+            public boolean readyToTake(Object obj) {
+                validations.incrementAndGet();
+                return !broken.contains(obj);
+            }
+        };
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(),
+                new IntervalValidatingObjectFactory<>(factory, 10, 1, TimeUnit.HOURS), 5, 10, false);
+
+        // the newly created objects are not validated on take
+        Object[] objs = new Object[5];
+        for (int i = 0; i < 5; i++) {
+            objs[i] = pool.take();
+        }
+        pool.restoreAll(objs, 5, true);
+        assertEquals(0, validations.get());
+
+        broken.add(objs[0]);
+        broken.add(objs[1]);
+        assertEquals(0, pool.validateIdle(5)); // validated recently
+        assertEquals(0, validations.get());
+
+        pool.terminate();
+        broken.clear();
+        validations.set(0);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), factory, 5, 10, false);
+        for (int i = 0; i < 5; i++) {
+            objs[i] = pool.take();
+        }
+        pool.restoreAll(objs, 5, true);
+        assertEquals(5, validations.getAndSet(0));
+        broken.add(objs[0]);
+        broken.add(objs[1]);
+
+        final CountDownLatch finishLatch = new CountDownLatch(3);
+        IdleValidator validator = new IdleValidator(pool, 2, 20, TimeUnit.MILLISECONDS) {
+            @Override
+            protected void afterValidate(int validations, int invalid, Throwable thrown) {
+                super.afterValidate(validations, invalid, thrown);
+                finishLatch.countDown();
+            }
+        };
+        validator.start();
+        finishLatch.await();
+        validator.terminate();
+
+        // 3 runs validate 6 objects, the broken ones are replaced
+        assertEquals(6, validations.get());
+        assertEquals(5, pool.createdTotal());
+        assertEquals(5, pool.remainingCreated());
+        for (int i = 0; i < 5; i++) {
+            objs[i] = pool.take();
+            assertFalse(broken.contains(objs[i]));
+        }
+        pool.restoreAll(objs, 5, true);
+    }
+
+    @Test
+    public void testIdleValidatorWithIdlePoolReducer() throws InterruptedException {
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 10, false);
+        Object[] objs = new Object[5];
+        for (int i = 0; i < 5; i++) {
+            objs[i] = pool.take();
+        }
+        pool.restoreAll(objs, 5, true);
+
+        IdlePoolReducer reducer = new IdlePoolReducer(pool, 100, 20, TimeUnit.MILLISECONDS);
+        IdleValidator validator = new IdleValidator(pool, 2, 5, TimeUnit.MILLISECONDS);
+        reducer.start();
+        validator.start();
+        try {
+            // only the most recently used object is taken, while the validator keeps validating the idle ones
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(600);
+            while (System.nanoTime() - deadline < 0) {
+                pool.restore(pool.take());
+                Thread.sleep(1);
+            }
+        } finally {
+            validator.terminate();
+            reducer.terminate();
+        }
+
+        // the validated idle objects are still evicted
+        assertEquals(1, pool.createdTotal());
+        assertEquals(1, pool.remainingCreated());
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author agent
+ */
+public class IndexedTakenListenerTest {
+
+    private PoolService<Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    @Test
+    public void testGetTaken() {
+        IndexedTakenListener<Object> listener = new IndexedTakenListener<>(100);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 10, 100,
+                false, listener);
+
+        Object[] objs = new Object[50];
+        for (int i = 0; i < 50; i++) {
+            objs[i] = pool.take();
+        }
+        assertEquals(new HashSet<>(Arrays.asList(objs)), new HashSet<>(Arrays.asList(listener.getTaken(new Object[0]))));
+
+        for (int i = 0; i < 40; i++) {
+            pool.restore(objs[i]);
+        }
+        Object[] taken = new Object[20];
+        assertSame(taken, listener.getTaken(taken));
+        assertNull(taken[10]);
+        assertEquals(new HashSet<>(Arrays.asList(objs).subList(40, 50)),
+                new HashSet<>(Arrays.asList(taken).subList(0, 10)));
+
+        for (int i = 40; i < 50; i++) {
+            pool.restore(objs[i]);
+        }
+        assertEquals(0, listener.getTaken(new Object[0]).length);
+        assertEquals(0, listener.untracked());
+    }
+
+    @Test
+    public void testUntrackedAboveCapacity() {
+        IndexedTakenListener<Object> listener = new IndexedTakenListener<>(1); // a capacity of 4 objects
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 0, 10,
+                false, listener);
+
+        Object[] objs = new Object[6];
+        for (int i = 0; i < 6; i++) {
+            objs[i] = pool.take();
+        }
+        assertEquals(4, listener.getTaken(new Object[0]).length);
+        assertEquals(2, listener.untracked());
+
+        for (int i = 0; i < 6; i++) {
+            pool.restore(objs[i]);
+        }
+        assertEquals(0, listener.getTaken(new Object[0]).length);
+    }
+}
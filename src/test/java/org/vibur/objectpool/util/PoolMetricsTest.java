@@ -0,0 +1,143 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class PoolMetricsTest {
+
+    private PoolService<Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(500500.0, snapshot.mean(), 0.1);
+        assertEquals(1000000, snapshot.max());
+        assertWithinBucket(500000, snapshot.p50());
+        assertWithinBucket(990000, snapshot.p99());
+        assertWithinBucket(999000, snapshot.p999());
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        for (long value : new long[] {0, 1, 7, 8, 9, 15, 16, 1000, 123456789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index < LatencyHistogram.BUCKETS);
+            assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+            assertTrue(index == 0 || value > LatencyHistogram.bucketUpperBound(index - 1));
+        }
+    }
+
+    @Test
+    public void testPoolMetrics() {
+        PoolMetrics<Object> metrics = new PoolMetrics<>(2);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(),
+                metrics.factory(new SimpleObjectFactory()), 1, 2,
+                metrics.permits(new SemaphorePermits(2, false)), metrics.listener(null), 0, null);
+        assertEquals(1, metrics.create().snapshot().count());
+
+        Object obj1 = pool.take();
+        Object obj2 = pool.take();
+        assertNotNull(obj1);
+        assertNotNull(obj2);
+        assertNull(pool.tryTake(1, TimeUnit.MILLISECONDS));
+
+        assertEquals(3, metrics.takeWait().snapshot().count());
+        assertTrue(metrics.takeWait().snapshot().max() >= TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(1, metrics.timeouts());
+        assertEquals(2, metrics.create().snapshot().count());
+
+        // an interrupted wait is neither a wait nor a timeout
+        Thread.currentThread().interrupt();
+        assertNull(pool.tryTake(1, TimeUnit.SECONDS));
+        assertTrue(Thread.interrupted()); // clears the interrupted flag in order to not affect subsequent tests
+        assertEquals(3, metrics.takeWait().snapshot().count());
+        assertEquals(1, metrics.timeouts());
+
+        // an interrupted wait in the waiters queue is neither a wait nor a timeout
+        Thread.currentThread().interrupt();
+        assertNull(((ConcurrentPool<Object>) pool).tryTake(ConcurrentPool.MAX_PRIORITY, 1, TimeUnit.SECONDS));
+        assertTrue(Thread.interrupted());
+        assertEquals(3, metrics.takeWait().snapshot().count());
+        assertEquals(1, metrics.timeouts());
+
+        // a batch take which takes a partial batch is not a timeout
+        pool.restore(obj1);
+        Object[] objs = new Object[2];
+        assertEquals(1, pool.takeMany(objs, 2, 1, TimeUnit.MILLISECONDS));
+        assertEquals(1, metrics.timeouts());
+        obj1 = objs[0];
+
+        // a prioritized take which does not wait in the waiters queue is a timeout, too
+        assertNull(((ConcurrentPool<Object>) pool).tryTake(ConcurrentPool.MAX_PRIORITY, 0, TimeUnit.SECONDS));
+        assertEquals(2, metrics.timeouts());
+
+        pool.restore(obj1);
+        pool.restore(obj2, false);
+        assertEquals(3, metrics.hold().snapshot().count());
+        assertTrue(metrics.validate().snapshot().count() <= 3);
+        assertEquals(1, metrics.destroy().snapshot().count());
+        assertEquals(0, metrics.untracked());
+    }
+
+    @Test
+    public void testUntrackedHoldTimes() {
+        PoolMetrics<Object> metrics = new PoolMetrics<>(1); // tracks up to 4 objects
+        ConcurrentPool<Object> concurrentPool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(),
+                new SimpleObjectFactory(), 0, 1, metrics.permits(new SemaphorePermits(1, false)),
+                metrics.listener(null), 0, null);
+        pool = concurrentPool;
+        concurrentPool.setMaxSize(6);
+
+        Object[] objs = new Object[6];
+        assertEquals(6, pool.takeMany(objs, 6, 0, TimeUnit.MILLISECONDS));
+        assertEquals(2, metrics.untracked());
+        pool.restoreAll(objs, 6, true);
+        assertEquals(4, metrics.hold().snapshot().count());
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertEquals(expected, actual, expected / LatencyHistogram.SUB_BUCKETS);
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class PoolReducerSchedulerTest {
+
+    private static final int POOLS = 50;
+
+    private final PoolService<?>[] pools = new PoolService<?>[POOLS];
+    private PoolReducerScheduler scheduler = null;
+
+    @After
+    public void tearDown() {
+        for (PoolService<?> pool : pools) {
+            if (pool != null) {
+                pool.terminate();
+            }
+        }
+        if (scheduler != null) {
+            scheduler.terminate();
+        }
+    }
+
+    @Test
+    public void testManyReducers() throws InterruptedException {
+        scheduler = new PoolReducerScheduler(2);
+
+        final CountDownLatch finishLatch = new CountDownLatch(POOLS);
+        ThreadedPoolReducer[] reducers = new ThreadedPoolReducer[POOLS];
+        for (int i = 0; i < POOLS; i++) {
+            PoolService<Object> pool = new ConcurrentPool<>(
+                    new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 0, 100, false);
+            pool.increaseCreatedBy(10);
+            pools[i] = pool;
+
+            reducers[i] = new SamplingPoolReducer(pool, 50 + i, TimeUnit.MILLISECONDS, 5, scheduler) {
+                private boolean first = true;
+
+                @Override
+                protected void afterReduce(int reduction, int reduced, Throwable thrown) {
+                    super.afterReduce(reduction, reduced, thrown);
+                    if (first) {
+                        first = false;
+                        finishLatch.countDown();
+                    }
+                }
+            };
+            assertEquals(Thread.State.NEW, reducers[i].getState());
+            reducers[i].start();
+        }
+        assertEquals(POOLS, scheduler.scheduled());
+
+        finishLatch.await();
+        // the first reduction of each pool reduces 20% of its 10 objects
+        for (int i = 0; i < POOLS; i++) {
+            assertEquals(Thread.State.TIMED_WAITING, reducers[i].getState());
+            assertEquals(8, pools[i].createdTotal(), 2);
+        }
+
+        reducers[0].terminate();
+        assertEquals(Thread.State.TERMINATED, reducers[0].getState());
+        assertEquals(POOLS - 1, scheduler.scheduled());
+
+        scheduler.terminate();
+        assertEquals(Thread.State.TERMINATED, reducers[1].getState());
+    }
+
+    @Test
+    public void testFailingReducerIsReportedAndRemoved() throws InterruptedException {
+        scheduler = new PoolReducerScheduler(1);
+        PoolService<Object> pool = new ConcurrentPool<>(
+                new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 0, 10, false);
+        pools[0] = pool;
+
+        final AtomicReference<Throwable> reported = new AtomicReference<>();
+        final CountDownLatch reportLatch = new CountDownLatch(1);
+        Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                reported.set(e);
+                reportLatch.countDown();
+            }
+        });
+        try {
+            ThreadedPoolReducer reducer = new SamplingPoolReducer(pool, 10, TimeUnit.MILLISECONDS, 2, scheduler) {
+                @Override
+                protected void afterReduce(int reduction, int reduced, Throwable thrown) {
+                    throw new IllegalStateException("afterReduce");
+                }
+            };
+            reducer.start();
+            assertTrue(reportLatch.await(5, TimeUnit.SECONDS));
+            assertEquals("afterReduce", reported.get().getMessage());
+
+            // the failed reducer is not run again
+            for (int i = 0; i < 100 && reducer.getState() != Thread.State.TERMINATED; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(Thread.State.TERMINATED, reducer.getState());
+            assertEquals(0, scheduler.scheduled());
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+    }
+}
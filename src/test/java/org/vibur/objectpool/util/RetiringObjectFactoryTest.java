@@ -0,0 +1,148 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.vibur.objectpool.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author agent
+ */
+public class RetiringObjectFactoryTest {
+
+    private PoolService<Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    @Test
+    public void testMaxUses() {
+        RetiringObjectFactory<Object> factory = new RetiringObjectFactory<>(new SimpleObjectFactory(), 10,
+                0, 0, TimeUnit.SECONDS, 3);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), factory, 1, 10, false);
+
+        Object obj = pool.take();
+        pool.restore(obj);
+        assertSame(obj, pool.take());
+        pool.restore(obj);
+        assertSame(obj, pool.take());
+        pool.restore(obj); // the third use retires the object
+        assertEquals(1, factory.retired());
+        assertEquals(0, pool.createdTotal());
+
+        Object newObj = pool.take();
+        assertNotSame(obj, newObj);
+        pool.restore(newObj);
+        assertEquals(1, pool.createdTotal());
+        assertEquals(1, factory.retired());
+    }
+
+    @Test
+    public void testMaxLifetime() throws InterruptedException {
+        RetiringObjectFactory<Object> factory = new RetiringObjectFactory<>(new SimpleObjectFactory(), 10,
+                100, 50, TimeUnit.MILLISECONDS, 0);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), factory, 5, 10, false);
+
+        Object[] objs = new Object[5];
+        for (int i = 0; i < 5; i++) {
+            objs[i] = pool.take();
+        }
+        pool.restoreAll(objs, 5, true);
+        assertEquals(0, factory.retired());
+        assertEquals(5, pool.createdTotal());
+
+        Thread.sleep(200);
+        for (int i = 0; i < 5; i++) {
+            objs[i] = pool.take(); // the expired objects are not retired on take
+        }
+        assertEquals(0, factory.retired());
+        assertEquals(5, pool.createdTotal());
+        pool.restoreAll(objs, 5, true);
+        assertEquals(5, factory.retired());
+        assertEquals(0, pool.createdTotal());
+        assertEquals(10, pool.remainingCapacity());
+    }
+
+    @Test
+    public void testMaxLifetimeWhileIdle() throws InterruptedException {
+        RetiringObjectFactory<Object> factory = new RetiringObjectFactory<>(new SimpleObjectFactory(), 10,
+                100, 50, TimeUnit.MILLISECONDS, 0);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), factory, 1, 10, false);
+
+        Object obj = pool.take();
+        pool.restore(obj);
+        Thread.sleep(200);
+
+        // the object expired while idle is retired by the idle validation, which creates a new object in its place
+        assertEquals(1, pool.validateIdle(1));
+        assertEquals(1, factory.retired());
+        assertEquals(1, pool.createdTotal());
+        assertEquals(1, pool.remainingCreated());
+
+        Object newObj = pool.take();
+        assertNotSame(obj, newObj);
+        pool.restore(newObj);
+        assertEquals(1, factory.retired());
+        assertEquals(1, pool.remainingCreated());
+    }
+
+    @Test
+    public void testUntrackedObjectsAreRetired() {
+        RetiringObjectFactory<Object> factory = new RetiringObjectFactory<>(new SimpleObjectFactory(), 1,
+                1, 0, TimeUnit.HOURS, 0); // tracks up to 4 objects
+        ConcurrentPool<Object> concurrentPool = new ConcurrentPool<>(
+                new ConcurrentLinkedDequeCollection<>(), factory, 1, 1, false);
+        pool = concurrentPool;
+        concurrentPool.setMaxSize(6);
+
+        Object[] objs = new Object[6];
+        assertEquals(6, pool.takeMany(objs, 6, 0, TimeUnit.MILLISECONDS));
+        pool.restoreAll(objs, 6, true);
+        assertEquals(2, factory.retired());
+        assertEquals(4, pool.createdTotal());
+        assertEquals(4, pool.remainingCreated());
+    }
+
+    @Test
+    public void testPreInitializedObjectsAreTracked() throws InterruptedException {
+        ConcurrentLinkedDequeCollection<Object> available = new ConcurrentLinkedDequeCollection<>();
+        available.offerLast(new Object());
+        RetiringObjectFactory<Object> factory = new RetiringObjectFactory<>(new SimpleObjectFactory(), 10,
+                100, 0, TimeUnit.MILLISECONDS, 0);
+        pool = new ConcurrentPool<>(available, factory, 1, 10, false);
+
+        // the pre-initialized object is tracked by its first idle validation, and retired by a later one
+        assertEquals(0, pool.validateIdle(1));
+        Thread.sleep(200);
+        assertEquals(1, pool.validateIdle(1));
+        assertEquals(1, factory.retired());
+    }
+}
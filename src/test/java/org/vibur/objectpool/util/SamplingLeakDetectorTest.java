@@ -0,0 +1,108 @@
+/**
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vibur.objectpool.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.vibur.objectpool.ConcurrentPool;
+import org.vibur.objectpool.PoolService;
+import org.vibur.objectpool.SimpleObjectFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author agent
+ */
+public class SamplingLeakDetectorTest {
+
+    private PoolService<Object> pool = null;
+
+    @After
+    public void tearDown() {
+        if (pool != null ) {
+            pool.terminate();
+        }
+        pool = null;
+    }
+
+    @Test
+    public void testLeakDetection() throws InterruptedException {
+        final List<Object> leaks = new CopyOnWriteArrayList<>();
+        final List<Throwable> stackTraces = new CopyOnWriteArrayList<>();
+        SamplingLeakDetector<Object> detector = new SamplingLeakDetector<Object>(10, 1, true, 50, TimeUnit.MILLISECONDS) {
+            @Override
+            protected void reportLeak(Object object, long heldNanos, String threadName, Throwable stackTrace) {
+                leaks.add(object);
+                stackTraces.add(stackTrace);
+            }
+        };
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 10,
+                false, detector);
+
+        Object leaked = pool.take();
+        Object restored = pool.take();
+        assertEquals(2, detector.tracked());
+        pool.restore(restored);
+        assertEquals(1, detector.tracked());
+        assertEquals(0, detector.sweep());
+
+        Thread.sleep(100);
+        assertEquals(1, detector.sweep());
+        assertEquals(0, detector.sweep()); // a leak is reported only once
+        assertEquals(1, leaks.size());
+        assertSame(leaked, leaks.get(0));
+        assertNotNull(stackTraces.get(0));
+
+        pool.restore(leaked);
+        assertEquals(0, detector.tracked());
+    }
+
+    @Test
+    public void testScheduledLeakReporter() throws InterruptedException {
+        final List<Object> leaks = new CopyOnWriteArrayList<>();
+        PoolReducerScheduler scheduler = new PoolReducerScheduler(1);
+        SamplingLeakDetector<Object> detector = new SamplingLeakDetector<>(10, 1, false, 20, TimeUnit.MILLISECONDS,
+                new SamplingLeakDetector.LeakReporter<Object>() {
+                    @Override
+                    public void reportLeak(Object object, long heldNanos, String threadName, Throwable stackTrace) {
+                        leaks.add(object);
+                    }
+                }, scheduler);
+        pool = new ConcurrentPool<>(new ConcurrentLinkedDequeCollection<>(), new SimpleObjectFactory(), 1, 10,
+                false, detector);
+        try {
+            detector.start();
+            assertEquals(1, scheduler.scheduled());
+
+            Object leaked = pool.take();
+            Thread.sleep(200);
+            assertEquals(1, leaks.size());
+            assertSame(leaked, leaks.get(0));
+
+            detector.terminate();
+            assertEquals(0, scheduler.scheduled());
+            pool.restore(leaked);
+        } finally {
+            scheduler.terminate();
+        }
+    }
+}